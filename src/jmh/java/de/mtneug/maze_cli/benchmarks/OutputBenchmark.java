@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.benchmarks;
+
+import de.mtneug.maze_cli.algorithms.M;
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.model.MazeSolutions;
+import de.mtneug.maze_cli.outputs.*;
+import de.mtneug.maze_cli.solvers.TremauxMazeSolverAlgorithm;
+import de.mtneug.maze_cli.util.Xoshiro256StarStar;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of all file outputs. Every output writes the same solved maze generated by M into a temporary directory.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputBenchmark {
+  /**
+   * Number of statistics lines after which the benchmark waits until they have been written.
+   */
+  private final static int STATISTICS_FLUSH_INTERVAL = 1024;
+
+  /**
+   * Name of the output as registered with {@link de.mtneug.maze_cli.annotations.OutputAdapter}.
+   */
+  @Param({"svg", "pdf", "eps", "png", "maze", "seminar", "statistics"})
+  public String output;
+
+  /**
+   * Width and height of the maze.
+   */
+  @Param({"10", "100"})
+  public int size;
+
+  /**
+   * Difficulty of the maze.
+   */
+  @Param({"50"})
+  public int difficulty;
+
+  /**
+   * The solved maze to output.
+   */
+  private MazeSolutions mazeSolutions;
+
+  /**
+   * Directory the outputs are written to.
+   */
+  private File directory;
+
+  /**
+   * Path of the written file.
+   */
+  private String path;
+
+  /**
+   * Number of invocations of {@link #write()}.
+   */
+  private long invocations = 0;
+
+  /**
+   * Generates and solves the maze.
+   *
+   * @throws Exception
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    final Maze maze = new M(size, size, new Xoshiro256StarStar(size), difficulty).call();
+
+    mazeSolutions = new TremauxMazeSolverAlgorithm(maze, new Xoshiro256StarStar(size)).call();
+    directory = Files.createTempDirectory("maze-benchmark").toFile();
+    path = new File(directory, "maze." + output).getPath();
+  }
+
+  /**
+   * Closes the statistics file and deletes the written files.
+   *
+   * @throws IOException
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    CsvWriterService.getInstance().closeAll();
+
+    final File[] files = directory.listFiles();
+
+    if (files != null)
+      for (File file : files)
+        Files.delete(file.toPath());
+
+    Files.delete(directory.toPath());
+  }
+
+  /**
+   * Waits until all statistics lines of the iteration have been written, so iterations do not overlap.
+   *
+   * @throws IOException
+   */
+  @TearDown(Level.Iteration)
+  public void flush() throws IOException {
+    CsvWriterService.getInstance().flushAll();
+  }
+
+  /**
+   * Writes the maze. The statistics output only hands its line to the {@link CsvWriterService}, so every
+   * {@link #STATISTICS_FLUSH_INTERVAL} invocations the benchmark waits until the lines have been written. Thereby the
+   * score includes writing the lines in batches like a real run and the queue of the writer stays bounded, while the
+   * file stays open.
+   *
+   * @return The returned object of the output.
+   * @throws Exception
+   */
+  @Benchmark
+  public Object write() throws Exception {
+    final Object result = createOutput().call();
+
+    if ("statistics".equals(output) && ++invocations % STATISTICS_FLUSH_INTERVAL == 0)
+      CsvWriterService.getInstance().flushAll();
+
+    return result;
+  }
+
+  /**
+   * Creates the output.
+   *
+   * @return The output.
+   */
+  private AbstractMazeOutput createOutput() {
+    switch (output) {
+      case "svg":
+        return new SvgOutput(mazeSolutions, path);
+      case "pdf":
+        return new PdfOutput(mazeSolutions, path);
+      case "eps":
+        return new EpsOutput(mazeSolutions, path);
+      case "png":
+        return new PngOutput(mazeSolutions, path, PngOutput.DEFAULT_CELL_PIXELS, PngOutput.DEFAULT_WALL_PIXELS);
+      case "maze":
+        return new BinaryMazeOutput(mazeSolutions, path);
+      case "seminar":
+        return new SeminarSerializationOutput(mazeSolutions, path);
+      case "statistics":
+        return new StatisticsOutput(mazeSolutions, path);
+      default:
+        throw new IllegalArgumentException("The output " + output + " could not be found");
+    }
+  }
+}
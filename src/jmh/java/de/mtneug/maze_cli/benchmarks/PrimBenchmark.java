@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.benchmarks;
+
+import de.mtneug.maze_cli.algorithms.MazeBuffer;
+import de.mtneug.maze_cli.algorithms.Prim;
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.util.Xoshiro256StarStar;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the Prim maze generation algorithm.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimBenchmark {
+  /**
+   * Width and height of the generated mazes.
+   */
+  @Param({"10", "100", "1000"})
+  public int size;
+
+  /**
+   * Seed of the next maze, so every invocation generates another maze.
+   */
+  private long seed = 0;
+
+  /**
+   * Storage reused by every maze generated with {@link #generateReusingBuffer()}.
+   */
+  private MazeBuffer buffer;
+
+  /**
+   * Creates the reused storage.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    buffer = new MazeBuffer(size, size);
+  }
+
+  /**
+   * Generates a maze.
+   *
+   * @return The generated maze.
+   * @throws Exception
+   */
+  @Benchmark
+  public Maze generate() throws Exception {
+    return new Prim(size, size, new Xoshiro256StarStar(seed++)).call();
+  }
+
+  /**
+   * Generates a maze reusing the storage of the previous one.
+   *
+   * @return The generated maze.
+   * @throws Exception
+   */
+  @Benchmark
+  public Maze generateReusingBuffer() throws Exception {
+    return new Prim(buffer, new Xoshiro256StarStar(seed++)).call();
+  }
+}
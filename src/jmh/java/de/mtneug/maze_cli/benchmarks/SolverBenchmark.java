@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.benchmarks;
+
+import de.mtneug.maze_cli.algorithms.M;
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.model.MazeSolutions;
+import de.mtneug.maze_cli.solvers.AbstractMazeSolverAlgorithm;
+import de.mtneug.maze_cli.solvers.MazeSolverClassRegistry;
+import de.mtneug.maze_cli.util.RandomNumberGenerator;
+import de.mtneug.maze_cli.util.Xoshiro256StarStar;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of all registered maze solvers. Every solver solves the same maze generated by M.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+  /**
+   * Name of the solver as registered with {@link de.mtneug.maze_cli.annotations.Solver}.
+   */
+  @Param({"none", "tremaux", "bfs", "bibfs", "astar", "deadend-fill"})
+  public String solver;
+
+  /**
+   * Width and height of the solved maze.
+   */
+  @Param({"10", "100", "1000"})
+  public int size;
+
+  /**
+   * Difficulty of the solved maze.
+   */
+  @Param({"0", "50", "100"})
+  public int difficulty;
+
+  /**
+   * The maze to solve.
+   */
+  private Maze maze;
+
+  /**
+   * Constructor of the solver taking a maze and a random number generator or {@code null} if it has none.
+   */
+  private Constructor<? extends AbstractMazeSolverAlgorithm> randomConstructor;
+
+  /**
+   * Constructor of the solver taking a maze.
+   */
+  private Constructor<? extends AbstractMazeSolverAlgorithm> constructor;
+
+  /**
+   * Seed of the random number generator of the next solver.
+   */
+  private long seed = 0;
+
+  /**
+   * Generates the maze and looks up the solver.
+   *
+   * @throws Exception
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    final Class<? extends AbstractMazeSolverAlgorithm> solverClass =
+        MazeSolverClassRegistry.getInstance().getClass(solver);
+
+    if (solverClass == null)
+      throw new IllegalArgumentException("The solver " + solver + " could not be found");
+
+    try {
+      randomConstructor = solverClass.getConstructor(Maze.class, RandomNumberGenerator.class);
+    } catch (NoSuchMethodException e) {
+      constructor = solverClass.getConstructor(Maze.class);
+    }
+
+    maze = new M(size, size, new Xoshiro256StarStar(size), difficulty).call();
+  }
+
+  /**
+   * Solves the maze.
+   *
+   * @return The maze solutions.
+   * @throws Exception
+   */
+  @Benchmark
+  public MazeSolutions solve() throws Exception {
+    final AbstractMazeSolverAlgorithm solverInstance = randomConstructor != null
+        ? randomConstructor.newInstance(maze, new Xoshiro256StarStar(seed++))
+        : constructor.newInstance(maze);
+
+    return solverInstance.call();
+  }
+}
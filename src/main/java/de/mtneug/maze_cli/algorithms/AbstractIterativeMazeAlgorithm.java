@@ -4,7 +4,7 @@
 
 package de.mtneug.maze_cli.algorithms;
 
-import java.util.Random;
+import de.mtneug.maze_cli.util.RandomNumberGenerator;
 
 /**
  * Common class of all maze algorithms which mainly consist of a loop. Implementing a
@@ -30,10 +30,20 @@ public abstract class AbstractIterativeMazeAlgorithm extends AbstractMazeAlgorit
    * @param height The height of the maze to generate.
    * @param random The random number generator object to use when creating the maze.
    */
-  public AbstractIterativeMazeAlgorithm(int width, int height, Random random) {
+  public AbstractIterativeMazeAlgorithm(int width, int height, RandomNumberGenerator random) {
     super(width, height, random);
   }
 
+  /**
+   * Common constructor of a maze algorithm class reusing the storage of {@code buffer}.
+   *
+   * @param buffer The storage of the maze to generate.
+   * @param random The random number generator object to use when creating the maze.
+   */
+  public AbstractIterativeMazeAlgorithm(MazeBuffer buffer, RandomNumberGenerator random) {
+    super(buffer, random);
+  }
+
   /**
    * Code that runs before the loop.
    */
@@ -6,8 +6,10 @@ package de.mtneug.maze_cli.algorithms;
 
 import de.mtneug.maze_cli.model.AbstractAlgorithm;
 import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.util.RandomNumberGenerator;
+import de.mtneug.maze_cli.util.RandomNumberGeneratorType;
 
-import java.util.Random;
+import java.util.BitSet;
 import java.util.concurrent.Callable;
 
 /**
@@ -15,6 +17,13 @@ import java.util.concurrent.Callable;
  * {@link #running()} method. This method can assume, that a proper initial maze is generated. The generated initial
  * maze by can be changed in {@link #prepareMaze()}.
  * <p/>
+ * Implementations can keep track of the cells they have already visited with {@link #markVisited(int)} and
+ * {@link #isVisited(int)}. The visited cells are stored in a bit set indexed by cell ID, so no labels need to be put on
+ * the cells of the maze.
+ * <p/>
+ * The maze, the visited cells and further scratch space are taken from a {@link MazeBuffer}. Passing the same buffer to
+ * the algorithms of a batch of mazes with the same dimensions avoids allocating them again for every maze.
+ * <p/>
  * To use a maze algorithm one should not use the {@link #running()} method directly, but rather {@link #call()}. Maze
  * algorithms are thus {@link Callable<Maze>} and can be run in threads.
  *
@@ -26,7 +35,27 @@ public abstract class AbstractMazeAlgorithm extends AbstractAlgorithm<Maze> {
   /**
    * The random number generator object to use when creating the maze.
    */
-  protected final Random random;
+  protected final RandomNumberGenerator random;
+
+  /**
+   * The storage of the maze and of the scratch space of this run.
+   */
+  private final MazeBuffer buffer;
+
+  /**
+   * The cells visited during the current run, indexed by cell ID.
+   */
+  private final BitSet visited;
+
+  /**
+   * The seed of {@link #random} or {@code null} if it is not known.
+   */
+  private Long seed;
+
+  /**
+   * The type of {@link #random} or {@code null} if it is not known.
+   */
+  private RandomNumberGeneratorType randomNumberGeneratorType;
 
   /**
    * Common constructor of a maze algorithm class.
@@ -35,15 +64,102 @@ public abstract class AbstractMazeAlgorithm extends AbstractAlgorithm<Maze> {
    * @param height The height of the maze to generate.
    * @param random The random number generator object to use when creating the maze.
    */
-  public AbstractMazeAlgorithm(int width, int height, Random random) {
+  public AbstractMazeAlgorithm(int width, int height, RandomNumberGenerator random) {
+    this(new MazeBuffer(width, height), random);
+  }
+
+  /**
+   * Common constructor of a maze algorithm class reusing the storage of {@code buffer}. The buffer is reset, so the
+   * maze of the previous algorithm using it must not be used anymore.
+   *
+   * @param buffer The storage of the maze to generate.
+   * @param random The random number generator object to use when creating the maze.
+   */
+  public AbstractMazeAlgorithm(MazeBuffer buffer, RandomNumberGenerator random) {
+    buffer.reset(this);
+
     this.random = random;
-    this.output = new Maze(width, height, this);
+    this.buffer = buffer;
+    this.output = buffer.getMaze();
+    this.visited = buffer.getVisited();
     prepareMaze();
   }
 
+  /**
+   * Returns the storage of the maze and of the scratch space of this run.
+   *
+   * @return The buffer.
+   */
+  protected MazeBuffer getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * Checks whether the cell with the given ID has been visited.
+   *
+   * @param cellId The ID of the cell.
+   * @return {@code true} if it has been visited, {@code false} otherwise.
+   */
+  protected boolean isVisited(int cellId) {
+    return visited.get(cellId);
+  }
+
+  /**
+   * Marks the cell with the given ID as visited.
+   *
+   * @param cellId The ID of the cell.
+   */
+  protected void markVisited(int cellId) {
+    visited.set(cellId);
+  }
+
+  /**
+   * Forgets all visited cells.
+   */
+  protected void clearVisited() {
+    visited.clear();
+  }
+
   /**
    * Code that prepares an initial maze ready for use at {@link #running()}.
    */
   protected void prepareMaze() {
   }
+
+  /**
+   * Returns the seed of the random number generator. Together with the type of the random number generator and the name
+   * and the options of the algorithm it allows to generate the maze again.
+   *
+   * @return The seed or {@code null} if it is not known.
+   */
+  public Long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Sets the seed of the random number generator. The generator is not changed, the seed is only recorded.
+   *
+   * @param seed The seed or {@code null} if it is not known.
+   */
+  public void setSeed(Long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * Returns the type of the random number generator.
+   *
+   * @return The type or {@code null} if it is not known.
+   */
+  public RandomNumberGeneratorType getRandomNumberGeneratorType() {
+    return randomNumberGeneratorType;
+  }
+
+  /**
+   * Sets the type of the random number generator. The generator is not changed, the type is only recorded.
+   *
+   * @param randomNumberGeneratorType The type or {@code null} if it is not known.
+   */
+  public void setRandomNumberGeneratorType(RandomNumberGeneratorType randomNumberGeneratorType) {
+    this.randomNumberGeneratorType = randomNumberGeneratorType;
+  }
 }
\ No newline at end of file
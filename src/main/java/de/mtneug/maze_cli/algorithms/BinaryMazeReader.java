@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.algorithms;
+
+import de.mtneug.maze_cli.model.MazeGrid;
+import de.mtneug.maze_cli.model.Orientation;
+import de.mtneug.maze_cli.outputs.BinaryMazeOutput;
+import de.mtneug.maze_cli.util.RandomNumberGeneratorType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static de.mtneug.maze_cli.outputs.BinaryMazeOutput.*;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Loads a maze written by {@link BinaryMazeOutput}. The file is mapped into memory and the walls are copied from the
+ * mapping straight into the {@link MazeGrid} of the maze, without parsing individual cells.
+ * <p/>
+ * Loading is treated as generation algorithm, so loaded mazes can be passed to every output and solver. The name, seed,
+ * random number generator type and statistics of the algorithm, which originally generated the maze, are taken from the file. Statistics of a loaded
+ * maze thus describe its generation and not its loading.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @see BinaryMazeOutput
+ * @since 1.1
+ */
+public class BinaryMazeReader extends AbstractMazeAlgorithm {
+  /**
+   * The mapped file.
+   */
+  private final MappedByteBuffer file;
+
+  /**
+   * The position of the walls of the grid in the file.
+   */
+  private final int gridOffset;
+
+  /**
+   * The name of the algorithm, which generated the maze.
+   */
+  private final String generatorName;
+
+  /**
+   * The statistics of the algorithm, which generated the maze.
+   */
+  private final String generatorStatistics;
+
+  /**
+   * The timing statistics of the algorithm, which generated the maze.
+   */
+  private final String generatorTimingStatistics;
+
+  /**
+   * The ID of the start cell or {@code -1} if there is none.
+   */
+  private final int startCellId;
+
+  /**
+   * The ID of the end cell or {@code -1} if there is none.
+   */
+  private final int endCellId;
+
+  /**
+   * The constructor. Maps the file and reads its header.
+   *
+   * @param path Path to the file to load.
+   * @throws IOException if the file can not be read or is not a valid maze file.
+   */
+  public BinaryMazeReader(String path) throws IOException {
+    this(map(path));
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param file The mapped file with a valid header.
+   */
+  private BinaryMazeReader(MappedByteBuffer file) {
+    super(file.getInt(WIDTH_OFFSET), file.getInt(HEIGHT_OFFSET), null);
+
+    this.file = file;
+
+    final ByteBuffer text = file.duplicate();
+    text.position(NAME_OFFSET);
+
+    this.generatorName = getString(text, file.getInt(NAME_LENGTH_OFFSET));
+    // unknown types are treated like unknown seeds
+    final String rngName = getString(text, file.getInt(RNG_NAME_LENGTH_OFFSET));
+    setRandomNumberGeneratorType(RandomNumberGeneratorType.getType(rngName));
+    this.generatorStatistics = getString(text, file.getInt(STATISTICS_LENGTH_OFFSET));
+    this.generatorTimingStatistics = getString(text, file.getInt(TIMING_STATISTICS_LENGTH_OFFSET));
+    this.gridOffset = getGridOffset(text.position() - NAME_OFFSET);
+
+    this.startCellId = file.getInt(START_CELL_OFFSET);
+    this.endCellId = file.getInt(END_CELL_OFFSET);
+
+    if ((file.getShort(FLAGS_OFFSET) & FLAG_SEED) != 0)
+      setSeed(file.getLong(SEED_OFFSET));
+  }
+
+  /**
+   * Reads a UTF-8 string from the current position of {@code buffer}.
+   *
+   * @param buffer The buffer.
+   * @param length The length of the string in bytes.
+   * @return The string.
+   */
+  private static String getString(ByteBuffer buffer, int length) {
+    final byte[] bytes = new byte[length];
+    buffer.get(bytes);
+
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Maps the file at {@code path} into memory and validates its header.
+   *
+   * @param path Path to the file.
+   * @return The mapped file.
+   * @throws IOException if the file can not be read or is not a valid maze file.
+   */
+  private static MappedByteBuffer map(String path) throws IOException {
+    final MappedByteBuffer file;
+
+    try (FileChannel channel = FileChannel.open(Paths.get(path), READ)) {
+      if (channel.size() < NAME_OFFSET || channel.size() > Integer.MAX_VALUE)
+        throw new IOException(path + " is not a maze file");
+
+      file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    final byte[] magic = new byte[MAGIC.length];
+    file.get(magic);
+
+    if (!Arrays.equals(magic, MAGIC))
+      throw new IOException(path + " is not a maze file");
+    if (file.getShort(VERSION_OFFSET) != VERSION)
+      throw new IOException("The version " + file.getShort(VERSION_OFFSET) + " of " + path + " is not supported");
+
+    final int width = file.getInt(WIDTH_OFFSET);
+    final int height = file.getInt(HEIGHT_OFFSET);
+    final int nameLength = file.getInt(NAME_LENGTH_OFFSET);
+    final int rngNameLength = file.getInt(RNG_NAME_LENGTH_OFFSET);
+    final int statisticsLength = file.getInt(STATISTICS_LENGTH_OFFSET);
+    final int timingStatisticsLength = file.getInt(TIMING_STATISTICS_LENGTH_OFFSET);
+
+    if (width < 2 || height < 2 || (long) width * height * MazeGrid.BITS_PER_CELL > Integer.MAX_VALUE)
+      throw new IOException("The dimension of " + path + " is invalid");
+    if (nameLength < 0 || nameLength > MAX_NAME_LENGTH)
+      throw new IOException("The algorithm name of " + path + " is invalid");
+    if (rngNameLength < 0 || rngNameLength > MAX_NAME_LENGTH)
+      throw new IOException("The random number generator of " + path + " is invalid");
+    if (statisticsLength < 0 || statisticsLength > MAX_STATISTICS_LENGTH ||
+        timingStatisticsLength < 0 || timingStatisticsLength > MAX_STATISTICS_LENGTH)
+      throw new IOException("The algorithm statistics of " + path + " are invalid");
+
+    final long wordCount = ((long) width * height * MazeGrid.BITS_PER_CELL + Long.SIZE - 1) / Long.SIZE;
+
+    if (file.capacity() != getGridOffset(nameLength + rngNameLength + statisticsLength + timingStatisticsLength) +
+        wordCount * Long.BYTES)
+      throw new IOException("The size of " + path + " does not match its dimension");
+
+    final int startCellId = file.getInt(START_CELL_OFFSET);
+    final int endCellId = file.getInt(END_CELL_OFFSET);
+
+    if (startCellId < -1 || startCellId >= width * height || endCellId < -1 || endCellId >= width * height ||
+        (startCellId >= 0 && startCellId == endCellId))
+      throw new IOException("The start or end cell of " + path + " is invalid");
+
+    return file;
+  }
+
+  /**
+   * Copies the walls from the file into the maze and sets the start and end cell.
+   *
+   * @throws IOException if the file links cells outside of the maze.
+   */
+  @Override
+  protected void running() throws IOException {
+    final MazeGrid grid = output.getGrid();
+    final ByteBuffer words = file.duplicate();
+
+    words.position(gridOffset);
+    grid.setLinkWords(0, words.asLongBuffer());
+
+    if (hasLinksOutside(grid))
+      throw new IOException("The maze file links cells outside of the maze");
+
+    if (startCellId >= 0)
+      output.setStartCell(grid.getCellX(startCellId), grid.getCellY(startCellId));
+
+    if (endCellId >= 0)
+      output.setEndCell(grid.getCellX(endCellId), grid.getCellY(endCellId));
+  }
+
+  /**
+   * Checks whether any of the walls of the bottom row or right column or any of the unused bits of the last word is
+   * open.
+   *
+   * @param grid The loaded grid.
+   * @return {@code true} if such a link exists, {@code false} otherwise.
+   */
+  private static boolean hasLinksOutside(MazeGrid grid) {
+    for (int x = 0; x < grid.getWidth(); x++)
+      if (grid.isLinked(grid.getWallId(grid.getCellId(x, grid.getHeight() - 1), Orientation.HORIZONTAL)))
+        return true;
+
+    for (int y = 0; y < grid.getHeight(); y++)
+      if (grid.isLinked(grid.getWallId(grid.getCellId(grid.getWidth() - 1, y), Orientation.VERTICAL)))
+        return true;
+
+    // the unused bits of the last word, checked as a whole, since their IDs may not fit into an int
+    final int usedBits = grid.getWallIdBound() % Long.SIZE;
+
+    if (usedBits == 0)
+      return false;
+
+    final LongBuffer lastWord = LongBuffer.allocate(1);
+    grid.getLinkWords(grid.getLinkWordCount() - 1, lastWord);
+
+    return (lastWord.get(0) & (-1L << usedBits)) != 0;
+  }
+
+  /**
+   * Returns the name of the algorithm, which generated the maze.
+   *
+   * @return The name or the empty string if it is not known.
+   */
+  @Override
+  public String getName() {
+    return generatorName;
+  }
+
+  /**
+   * Returns the statistics of the algorithm, which generated the maze, in a CSV formatted string.
+   *
+   * @return A CSV formatted string. Only the name if the statistics are not known.
+   */
+  @Override
+  public String getStatistics() {
+    return generatorStatistics.isEmpty() ? generatorName : generatorStatistics;
+  }
+
+  /**
+   * Returns the timing statistics of the algorithm, which generated the maze, in a CSV formatted string.
+   *
+   * @return A CSV formatted string. The timings of loading the maze if the statistics are not known.
+   */
+  @Override
+  public String getTimingStatistics() {
+    return generatorTimingStatistics.isEmpty() ? super.getTimingStatistics() : generatorTimingStatistics;
+  }
+}
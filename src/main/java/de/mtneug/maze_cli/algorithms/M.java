@@ -4,8 +4,11 @@
 
 package de.mtneug.maze_cli.algorithms;
 
-import com.google.common.collect.Sets;
 import de.mtneug.maze_cli.model.*;
+import de.mtneug.maze_cli.util.Drawable;
+import de.mtneug.maze_cli.util.Graphics;
+import de.mtneug.maze_cli.util.IntBag;
+import de.mtneug.maze_cli.util.RandomNumberGenerator;
 
 import java.io.IOException;
 import java.util.*;
@@ -63,15 +66,62 @@ public class M extends AbstractMazeAlgorithm {
    */
   public final static String NAME = "m";
 
+  /**
+   * Index of the buffer bag holding the IDs of the passable cells.
+   */
+  private final static int PASSABLE_CELL_IDS_BAG = 0;
+
+  /**
+   * Index of the buffer bag holding the IDs of the non passable cells.
+   */
+  private final static int NON_PASSABLE_CELL_IDS_BAG = 1;
+
+  /**
+   * Index of the buffer bag holding the IDs of the walls, which still needs to be looked at.
+   */
+  private final static int WALLS_BAG = 2;
+
+  /**
+   * All directions. Cached, since {@link Direction#values()} creates a new array on every call.
+   */
+  private final static Direction[] DIRECTIONS = Direction.values();
+
   /**
    * The difficulty.
    */
   private final int difficulty;
 
   /**
-   * The set of all passable cells. The non passable cells are the difference between all cells and the passable cells.
+   * The set of all passable cells indexed by cell ID. The non passable cells are the difference between all cells and
+   * the passable cells.
+   */
+  private final BitSet passableCells;
+
+  /**
+   * Adds the drawn cells to {@link #passableCells}. Positions outside of the maze are ignored.
    */
-  private final Set<Cell> passableCellSet = new LinkedHashSet<>();
+  private final Drawable passableCellDrawer = new Drawable() {
+    @Override
+    public void drawCell(int x, int y) {
+      if (output.getGrid().isValidPosition(x, y))
+        passableCells.set(output.getGrid().getCellId(x, y));
+    }
+  };
+
+  /**
+   * The wall time of generating the set of passable cells in nanoseconds.
+   */
+  private long passableCellSetTime = 0;
+
+  /**
+   * The wall time of running Prim on the passable cells in nanoseconds.
+   */
+  private long passablePrimTime = 0;
+
+  /**
+   * The wall time of running Prim on the non passable cells in nanoseconds.
+   */
+  private long nonPassablePrimTime = 0;
 
   /**
    * The constructor.
@@ -82,8 +132,22 @@ public class M extends AbstractMazeAlgorithm {
    * @param difficulty The difficulty of the maze to generate. It should be a value between 0 and 100, where 0
    *                   is the easiest and 100 is the hardest.
    */
-  public M(int width, int height, Random random, int difficulty) {
-    super(width, height, random);
+  public M(int width, int height, RandomNumberGenerator random, int difficulty) {
+    this(new MazeBuffer(width, height), random, difficulty);
+  }
+
+  /**
+   * The constructor reusing the storage of {@code buffer}.
+   *
+   * @param buffer     The storage of the maze to generate.
+   * @param random     The random number generator object to use when creating the maze.
+   * @param difficulty The difficulty of the maze to generate. It should be a value between 0 and 100, where 0
+   *                   is the easiest and 100 is the hardest.
+   */
+  public M(MazeBuffer buffer, RandomNumberGenerator random, int difficulty) {
+    super(buffer, random);
+
+    this.passableCells = buffer.getCellSet();
 
     if (difficulty < 0)
       this.difficulty = 0;
@@ -111,14 +175,36 @@ public class M extends AbstractMazeAlgorithm {
    */
   @Override
   protected void running() throws IOException {
+    clearVisited();
+
+    long phaseStart = System.nanoTime();
+
     // 1. Generate area of cells, which is passable
     generatePassableCellSet();
 
+    // Split the cells into passable and non passable ones in a single pass
+    final IntBag passableCellIds = getBuffer().getIntBag(PASSABLE_CELL_IDS_BAG);
+    final IntBag nonPassableCellIds = getBuffer().getIntBag(NON_PASSABLE_CELL_IDS_BAG);
+
+    for (int cellId = 0; cellId < output.getGrid().getCellCount(); cellId++)
+      if (passableCells.get(cellId))
+        passableCellIds.add(cellId);
+      else
+        nonPassableCellIds.add(cellId);
+
+    passableCellSetTime = System.nanoTime() - phaseStart;
+    phaseStart = System.nanoTime();
+
     // 2. Run Prim on the passable area beginning with the start cell
-    primOnCellSet(passableCellSet, output.getStartCell());
+    primOnCellSet(passableCellIds, true, output.getStartCell().getId());
+
+    passablePrimTime = System.nanoTime() - phaseStart;
+    phaseStart = System.nanoTime();
 
     // 3. Run Prim on the not passable area beginning with a random cell
-    primOnCellSet(getNonPassableCells());
+    primOnCellSet(nonPassableCellIds, false, -1);
+
+    nonPassablePrimTime = System.nanoTime() - phaseStart;
   }
 
   /**
@@ -131,7 +217,7 @@ public class M extends AbstractMazeAlgorithm {
   private void generatePassableCellSet() {
     // On the hardest level, all area is passable
     if (difficulty == MAXIMUM_DIFFICULTY) {
-      passableCellSet.addAll(output.getCells());
+      passableCells.set(0, output.getGrid().getCellCount());
       return;
     }
 
@@ -162,9 +248,9 @@ public class M extends AbstractMazeAlgorithm {
         final int newPosition = random.nextInt(shorterSideLength);
 
         if (shorterSide == HORIZONTAL)
-          pathCells.set(i, output.getCell(newPosition, oldCell.getPosition().y));
+          pathCells.set(i, output.getCell(newPosition, oldCell.getY()));
         else
-          pathCells.set(i, output.getCell(oldCell.getPosition().x, newPosition));
+          pathCells.set(i, output.getCell(oldCell.getX(), newPosition));
       }
     }
 
@@ -178,23 +264,23 @@ public class M extends AbstractMazeAlgorithm {
         int newPosition;
 
         if (shorterSide == HORIZONTAL) {
-          newPosition = oldCell.getPosition().y + deltaPosition;
+          newPosition = oldCell.getY() + deltaPosition;
 
           if (newPosition < 0)
             newPosition = 0;
           else if (newPosition >= output.getHeight())
             newPosition = output.getHeight() - 1;
 
-          pathCells.set(i, output.getCell(oldCell.getPosition().x, newPosition));
+          pathCells.set(i, output.getCell(oldCell.getX(), newPosition));
         } else {
-          newPosition = oldCell.getPosition().x + deltaPosition;
+          newPosition = oldCell.getX() + deltaPosition;
 
           if (newPosition < 0)
             newPosition = 0;
           else if (newPosition >= output.getWidth())
             newPosition = output.getWidth() - 1;
 
-          pathCells.set(i, output.getCell(newPosition, oldCell.getPosition().y));
+          pathCells.set(i, output.getCell(newPosition, oldCell.getY()));
         }
       }
     }
@@ -211,80 +297,93 @@ public class M extends AbstractMazeAlgorithm {
     // 5. Build the path and add the cells to the passable cell set
     final double pathWidth = (double) difficulty / MAXIMUM_DIFFICULTY * shorterSideLength * SHORTER_SIDE_PERCENTAGE;
 
-    for (int i = 0; i < pathCells.size() - 1; i++) {
-      final WidthCalculatedPath pathSegment = new WidthCalculatedPath(pathCells.get(i), pathCells.get(i + 1), output, pathWidth);
-      pathSegment.calculatePath();
-      passableCellSet.addAll(pathSegment.getAreaCells());
-    }
+    // the segments are drawn directly into the set instead of collecting their cells in a WidthCalculatedPath first
+    for (int i = 0; i < pathCells.size() - 1; i++)
+      Graphics.bresenham(
+          pathCells.get(i).getX(), pathCells.get(i).getY(),
+          pathCells.get(i + 1).getX(), pathCells.get(i + 1).getY(),
+          pathWidth, passableCellDrawer
+      );
   }
 
   /**
-   * Runs the Prim maze generation algorithm in {@code cellSet}. A random cell is selected as starting point. The given
-   * set can be empty, in which case nothing is done.
+   * Runs the Prim maze generation algorithm on the passable or non passable cells. If {@code initialCellId} is given,
+   * it is used as first starting point. Parts of the cell set, which could not be reached, are then started from a
+   * random not yet seen cell until every cell is part of the maze. The given set can be empty, in which case nothing is
+   * done.
    *
-   * @param cellSet The cell set.
+   * @param cellIds       The IDs of all cells in the set. The bag is emptied by this method.
+   * @param passable      Whether the set consists of the passable or of the non passable cells.
+   * @param initialCellId The ID of the first starting point or {@code -1} to choose a random one.
    */
-  private void primOnCellSet(Set<Cell> cellSet) {
-    if (cellSet.size() > 0)
-      primOnCellSet(
-          cellSet,
-          cellSet.toArray(new Cell[cellSet.size()])[random.nextInt(cellSet.size())]
-      );
+  private void primOnCellSet(IntBag cellIds, boolean passable, int initialCellId) {
+    if (initialCellId >= 0)
+      primOnCellSet(passable, initialCellId);
+
+    while (!cellIds.isEmpty()) {
+      // Every not yet seen cell is chosen with the same probability
+      final int cellId = cellIds.removeRandom(random);
+
+      if (!isVisited(cellId))
+        primOnCellSet(passable, cellId);
+    }
   }
 
   /**
-   * Runs the Prim maze generation algorithm in {@code cellSet} with {@code initialCell} as starting point. The given
-   * set can be empty, in which case nothing is done.
+   * Runs the Prim maze generation algorithm on the passable or non passable cells with the cell with ID
+   * {@code initialCellId} as starting point. Only the cells reachable from the starting point are added to the maze.
    *
-   * @param cellSet     The cell set.
-   * @param initialCell The starting point.
+   * @param passable      Whether to work on the passable or on the non passable cells.
+   * @param initialCellId The ID of the starting point.
    */
-  private void primOnCellSet(Set<Cell> cellSet, Cell initialCell) {
-    final Set<Cell> notSeenCellSet = new LinkedHashSet<>(cellSet);
-    final Set<Wall> wallSet = new LinkedHashSet<>();
+  private void primOnCellSet(boolean passable, int initialCellId) {
+    final IntBag walls = getBuffer().getIntBag(WALLS_BAG);
+    final MazeGrid grid = output.getGrid();
 
     // Save all relevant walls of the initial cell
-    saveWalls(initialCell, cellSet, notSeenCellSet, wallSet);
+    saveWalls(initialCellId, passable, walls);
 
-    while (!wallSet.isEmpty()) {
-      final Wall[] walls = wallSet.toArray(new Wall[wallSet.size()]);
-      final Wall wall = walls[random.nextInt(wallSet.size())];
-      wallSet.remove(wall);
+    while (!walls.isEmpty()) {
+      final int wall = walls.removeRandom(random);
+      final int cellId = grid.getWallCellId(wall);
+      final int neighborId = grid.getWallNeighborId(wall);
 
-      final Direction direction = wall.direction;
-      final Cell currentCell = wall.cell;
-      final Cell neighbor = wall.cell.getNeighborPositioned(wall.direction);
+      // Either side of the wall could have been seen first
+      final int notSeenId = !isVisited(cellId)
+          ? cellId
+          : !isVisited(neighborId) ? neighborId : -1;
 
       // If the cell on the opposite side isn't in the maze yet:
-      if (notSeenCellSet.contains(neighbor)) {
+      if (notSeenId >= 0) {
         // Make the wall a passage and mark the cell on the opposite side as part of the maze.
-        currentCell.link(direction);
+        grid.link(wall);
 
         // Save all relevant walls
-        saveWalls(neighbor, cellSet, notSeenCellSet, wallSet);
+        saveWalls(notSeenId, passable, walls);
       }
     }
-
-    if (notSeenCellSet.size() > 0)
-      primOnCellSet(notSeenCellSet);
   }
 
   /**
-   * Saves all relevant walls of {@code cell}.
+   * Saves all relevant walls of the cell with the given ID.
    *
-   * @param cell           The relevant cell.
-   * @param cellSet        The set of all considered cells.
-   * @param notSeenCellSet The set of all cells, which have not been seen yet.
-   * @param wallSet        The set of all walls, which still needs to be looked at.
+   * @param cellId   The ID of the relevant cell.
+   * @param passable Whether to consider the passable or the non passable cells.
+   * @param walls    The IDs of all walls, which still needs to be looked at.
    */
-  private void saveWalls(Cell cell, Set<Cell> cellSet, Set<Cell> notSeenCellSet, Set<Wall> wallSet) {
+  private void saveWalls(int cellId, boolean passable, IntBag walls) {
+    final MazeGrid grid = output.getGrid();
+
     // Mark cell as seen
-    notSeenCellSet.remove(cell);
+    markVisited(cellId);
 
     // Add the neighboring walls of the cell to the wall list.
-    for (Map.Entry<Direction, Cell> entry : cell.getNeighbors().entrySet())
-      if (cellSet.contains(entry.getValue()) && notSeenCellSet.contains(entry.getValue()))
-        wallSet.add(new Wall(cell, entry.getKey()));
+    for (Direction direction : DIRECTIONS) {
+      final int neighborId = grid.getNeighborId(cellId, direction);
+
+      if (neighborId >= 0 && !isVisited(neighborId) && passableCells.get(neighborId) == passable)
+        walls.add(grid.getWallId(cellId, direction));
+    }
   }
 
   /**
@@ -297,22 +396,59 @@ public class M extends AbstractMazeAlgorithm {
   }
 
   /**
-   * The set of cell, which are passable. They build a connected graph and include the start and end cell as well as at
-   * least one path that is a solution between them.
+   * Whether the given cell is passable. The passable cells build a connected graph and include the start and end cell
+   * as well as at least one path that is a solution between them.
+   *
+   * @param cell The cell.
+   * @return {@code true} if the cell is passable, {@code false} otherwise.
+   */
+  public boolean isPassable(Cell cell) {
+    return passableCells.get(cell.getId());
+  }
+
+  /**
+   * The number of passable cells.
    *
-   * @return The passable cell set.
+   * @return The number of passable cells.
    */
-  public Set<Cell> getPassableCellSet() {
-    return passableCellSet;
+  public int getPassableCellCount() {
+    return passableCells.cardinality();
   }
 
   /**
-   * The set of cell, which are not passable. They could potentially build a disconnected graph.
+   * The number of non passable cells. They could potentially build a disconnected graph.
    *
-   * @return The non passable cell set.
+   * @return The number of non passable cells.
    */
-  public Set<Cell> getNonPassableCells() {
-    return Sets.difference(new LinkedHashSet<Cell>(output.getCells()), passableCellSet);
+  public int getNonPassableCellCount() {
+    return output.getGrid().getCellCount() - getPassableCellCount();
+  }
+
+  /**
+   * Returns the wall time of generating the set of passable cells.
+   *
+   * @return The wall time in nanoseconds.
+   */
+  public long getPassableCellSetTime() {
+    return passableCellSetTime;
+  }
+
+  /**
+   * Returns the wall time of running Prim on the passable cells.
+   *
+   * @return The wall time in nanoseconds.
+   */
+  public long getPassablePrimTime() {
+    return passablePrimTime;
+  }
+
+  /**
+   * Returns the wall time of running Prim on the non passable cells.
+   *
+   * @return The wall time in nanoseconds.
+   */
+  public long getNonPassablePrimTime() {
+    return nonPassablePrimTime;
   }
 
   /**
@@ -334,13 +470,26 @@ public class M extends AbstractMazeAlgorithm {
   public String getStatistics() {
     return super.getStatistics() + "," +
         // number of passable cells
-        getPassableCellSet().size() + "," +
+        getPassableCellCount() + "," +
 
         // number of non-passable cells
-        getNonPassableCells().size() + "," +
+        getNonPassableCellCount() + "," +
 
         // difficulty
         difficulty + "," +
         DifficultyLevel.getDifficultyLevel(difficulty, MAXIMUM_DIFFICULTY);
   }
+
+  /**
+   * Returns the timings of the algorithm and of its three phases in a CSV formatted string.
+   *
+   * @return A CSV formatted string.
+   */
+  @Override
+  public String getTimingStatistics() {
+    return super.getTimingStatistics() + "," +
+        passableCellSetTime + "," +
+        passablePrimTime + "," +
+        nonPassablePrimTime;
+  }
 }
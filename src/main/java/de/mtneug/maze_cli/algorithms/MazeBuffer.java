@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.algorithms;
+
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.util.IntBag;
+
+import java.util.BitSet;
+
+/**
+ * Reusable storage of maze generation algorithm runs with fixed dimensions: the maze itself, the visited cells and
+ * scratch space of the algorithms. Every algorithm created with a buffer resets it in O(cells) by clearing all bits
+ * instead of allocating new objects, so generating many mazes of the same size allocates next to nothing.
+ * <p/>
+ * Creating an algorithm with a buffer invalidates the maze and statistics of the previous algorithm using it. A buffer
+ * must thus only be reused once the previous maze has been output completely, and it must not be shared between
+ * threads.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @see AbstractMazeAlgorithm
+ * @since 1.1
+ */
+public class MazeBuffer {
+  /**
+   * The number of scratch bags.
+   */
+  public final static int INT_BAG_COUNT = 3;
+
+  /**
+   * The width of the maze.
+   */
+  private final int width;
+
+  /**
+   * The height of the maze.
+   */
+  private final int height;
+
+  /**
+   * The maze.
+   */
+  private final Maze maze;
+
+  /**
+   * The visited cells indexed by cell ID.
+   */
+  private final BitSet visited;
+
+  /**
+   * A scratch set of cells indexed by cell ID. Created on first access.
+   */
+  private BitSet cellSet;
+
+  /**
+   * Scratch bags. Created on first access.
+   */
+  private final IntBag[] intBags = new IntBag[INT_BAG_COUNT];
+
+  /**
+   * The constructor.
+   *
+   * @param width  The width of the maze.
+   * @param height The height of the maze.
+   */
+  public MazeBuffer(int width, int height) {
+    this.width = width;
+    this.height = height;
+    this.maze = new Maze(width, height, null);
+    this.visited = new BitSet(maze.getGrid().getCellCount());
+  }
+
+  /**
+   * Resets the buffer for a new run of {@code mazeAlgorithm}. Puts up all walls of the maze and clears the visited
+   * cells and all scratch space.
+   *
+   * @param mazeAlgorithm The maze generation algorithm, which will use the buffer.
+   */
+  void reset(AbstractMazeAlgorithm mazeAlgorithm) {
+    maze.reset(mazeAlgorithm);
+    visited.clear();
+
+    if (cellSet != null)
+      cellSet.clear();
+
+    for (IntBag intBag : intBags)
+      if (intBag != null)
+        intBag.clear();
+  }
+
+  /**
+   * Checks whether the buffer holds mazes with the given dimensions.
+   *
+   * @param width  The width of the maze.
+   * @param height The height of the maze.
+   * @return {@code true} if the dimensions match, {@code false} otherwise.
+   */
+  public boolean fits(int width, int height) {
+    return this.width == width && this.height == height;
+  }
+
+  /**
+   * Returns the maze.
+   *
+   * @return The maze.
+   */
+  public Maze getMaze() {
+    return maze;
+  }
+
+  /**
+   * Returns the visited cells indexed by cell ID.
+   *
+   * @return The visited cells.
+   */
+  public BitSet getVisited() {
+    return visited;
+  }
+
+  /**
+   * Returns the scratch set of cells indexed by cell ID.
+   *
+   * @return The set of cells.
+   */
+  public BitSet getCellSet() {
+    if (cellSet == null)
+      cellSet = new BitSet(maze.getGrid().getCellCount());
+
+    return cellSet;
+  }
+
+  /**
+   * Returns the scratch bag with the given index.
+   *
+   * @param index The index of the bag between 0 (inclusive) and {@link #INT_BAG_COUNT} (exclusive).
+   * @return The bag.
+   */
+  public IntBag getIntBag(int index) {
+    if (intBags[index] == null)
+      intBags[index] = new IntBag();
+
+    return intBags[index];
+  }
+
+  /**
+   * The width of the maze.
+   *
+   * @return The width.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * The height of the maze.
+   *
+   * @return The height.
+   */
+  public int getHeight() {
+    return height;
+  }
+}
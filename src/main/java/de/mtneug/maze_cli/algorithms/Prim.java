@@ -4,14 +4,11 @@
 
 package de.mtneug.maze_cli.algorithms;
 
-import de.mtneug.maze_cli.model.Cell;
 import de.mtneug.maze_cli.model.Direction;
-import de.mtneug.maze_cli.model.Wall;
+import de.mtneug.maze_cli.model.MazeGrid;
+import de.mtneug.maze_cli.util.IntBag;
+import de.mtneug.maze_cli.util.RandomNumberGenerator;
 
-import java.util.LinkedHashSet;
-import java.util.Map;
-import java.util.Random;
-import java.util.Set;
 
 /**
  * Implementation of the Prim algorithm for maze generation. Loosely based on the
@@ -26,19 +23,20 @@ import java.util.Set;
  */
 public class Prim extends AbstractIterativeMazeAlgorithm {
   /**
-   * String instance that is used to mark the visited maze cells.
+   * The name of the algorithm.
    */
-  public final static String MARK = "visited";
+  public static final String NAME = "prim";
 
   /**
-   * The name of the algorithm.
+   * All directions. Cached, since {@link Direction#values()} creates a new array on every call.
    */
-  public static final String NAME = "prim";
+  private final static Direction[] DIRECTIONS = Direction.values();
 
   /**
-   * The set of walls i.e. cell and associated direction, which still needs to be looked at.
+   * The IDs of the walls, which still needs to be looked at. Every wall is added at most once, namely when the first of
+   * its two cells is visited.
    */
-  private final Set<Wall> wallSet = new LinkedHashSet<>();
+  private final IntBag walls;
 
   /**
    * The constructor.
@@ -47,17 +45,31 @@ public class Prim extends AbstractIterativeMazeAlgorithm {
    * @param height The height of the maze to generate.
    * @param random The random number generator object to use when creating the maze.
    */
-  public Prim(int width, int height, Random random) {
-    super(width, height, random);
+  public Prim(int width, int height, RandomNumberGenerator random) {
+    this(new MazeBuffer(width, height), random);
   }
 
   /**
-   * Code that runs before the loop. Here an initial cell is visited and
+   * The constructor reusing the storage of {@code buffer}.
+   *
+   * @param buffer The storage of the maze to generate.
+   * @param random The random number generator object to use when creating the maze.
+   */
+  public Prim(MazeBuffer buffer, RandomNumberGenerator random) {
+    super(buffer, random);
+
+    this.walls = buffer.getIntBag(0);
+  }
+
+  /**
+   * Code that runs before the loop. Here an initial cell is visited and its walls are saved.
    */
   @Override
   protected void before() {
+    clearVisited();
+
     // save all walls of a random cell
-    saveWalls(output.getCell(
+    saveWalls(output.getGrid().getCellId(
         random.nextInt(output.getWidth()),
         random.nextInt(output.getHeight())
     ));
@@ -68,42 +80,49 @@ public class Prim extends AbstractIterativeMazeAlgorithm {
    */
   @Override
   protected boolean step() {
-    if (wallSet.isEmpty())
+    if (walls.isEmpty())
       return false;
 
-    final Wall[] walls = wallSet.toArray(new Wall[wallSet.size()]);
-    final Wall wall = walls[random.nextInt(wallSet.size())];
-    wallSet.remove(wall);
+    final MazeGrid grid = output.getGrid();
+    final int wall = walls.removeRandom(random);
+    final int cellId = grid.getWallCellId(wall);
+    final int neighborId = grid.getWallNeighborId(wall);
 
-    final Direction direction = wall.direction;
-    final Cell currentCell = wall.cell;
-    final Cell neighbor = wall.cell.getNeighborPositioned(wall.direction);
+    // Either side of the wall could have been visited first
+    final int notVisitedId = !isVisited(cellId)
+        ? cellId
+        : !isVisited(neighborId) ? neighborId : -1;
 
     // If the cell on the opposite side isn't in the maze yet:
-    if (!neighbor.getLabels().contains(MARK)) {
+    if (notVisitedId >= 0) {
       // Make the wall a passage and mark the cell on the opposite side as part of the maze
-      currentCell.link(direction);
+      grid.link(wall);
 
       // Save all relevant walls
-      saveWalls(neighbor);
+      saveWalls(notVisitedId);
     }
 
-    return !wallSet.isEmpty();
+    return !walls.isEmpty();
   }
 
   /**
-   * Saves all relevant walls of {@code cell}.
+   * Saves all relevant walls of the cell with the given ID.
    *
-   * @param cell The relevant cell.
+   * @param cellId The ID of the relevant cell.
    */
-  private void saveWalls(Cell cell) {
+  private void saveWalls(int cellId) {
+    final MazeGrid grid = output.getGrid();
+
     // Mark cell as visited
-    cell.getLabels().add(MARK);
+    markVisited(cellId);
 
     // Add the neighboring walls of the cell to the wall list.
-    for (Map.Entry<Direction, Cell> entry : cell.getNeighbors().entrySet())
-      if (!entry.getValue().getLabels().contains(MARK))
-        wallSet.add(new Wall(cell, entry.getKey()));
+    for (Direction direction : DIRECTIONS) {
+      final int neighborId = grid.getNeighborId(cellId, direction);
+
+      if (neighborId >= 0 && !isVisited(neighborId))
+        walls.add(grid.getWallId(cellId, direction));
+    }
   }
 
   /**
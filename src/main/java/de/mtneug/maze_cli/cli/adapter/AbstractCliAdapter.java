@@ -4,6 +4,8 @@
 
 package de.mtneug.maze_cli.cli.adapter;
 
+import de.mtneug.maze_cli.exception.CliArgumentException;
+import de.mtneug.maze_cli.util.RandomNumberGeneratorType;
 import org.apache.commons.cli.*;
 
 import java.util.List;
@@ -66,6 +68,27 @@ public abstract class AbstractCliAdapter<T> {
     return parser.parse(options, args.toArray(new String[args.size()]));
   }
 
+  /**
+   * Returns the random number generator type given by the option {@code optionName}.
+   *
+   * @param commandLine Parsed CLI arguments.
+   * @param optionName  The name of the option.
+   * @return The given type or the default type if the option is missing.
+   * @throws CliArgumentException if the given type does not exist.
+   */
+  protected RandomNumberGeneratorType getRandomNumberGeneratorType(CommandLine commandLine, String optionName) {
+    if (!commandLine.hasOption(optionName))
+      return RandomNumberGeneratorType.DEFAULT;
+
+    final RandomNumberGeneratorType type = RandomNumberGeneratorType.getType(commandLine.getOptionValue(optionName));
+
+    if (type == null)
+      throw new CliArgumentException("The random number generator " + commandLine.getOptionValue(optionName) +
+          " could not be found");
+
+    return type;
+  }
+
   /**
    * Can be overwritten to add options.
    */
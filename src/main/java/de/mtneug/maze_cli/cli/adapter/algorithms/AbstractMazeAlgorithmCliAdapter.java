@@ -5,15 +5,19 @@
 package de.mtneug.maze_cli.cli.adapter.algorithms;
 
 import de.mtneug.maze_cli.algorithms.AbstractMazeAlgorithm;
+import de.mtneug.maze_cli.algorithms.MazeBuffer;
 import de.mtneug.maze_cli.cli.adapter.AbstractCliAdapter;
+import de.mtneug.maze_cli.util.RandomNumberGenerator;
+import de.mtneug.maze_cli.util.RandomNumberGeneratorType;
+import de.mtneug.maze_cli.util.SplitMix64;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.ParseException;
 
 import java.security.SecureRandom;
-import java.util.Random;
 
 import static org.apache.commons.cli.PatternOptionBuilder.NUMBER_VALUE;
+import static org.apache.commons.cli.PatternOptionBuilder.STRING_VALUE;
 
 /**
  * Common CLI to maze algorithm adapter.
@@ -23,11 +27,19 @@ import static org.apache.commons.cli.PatternOptionBuilder.NUMBER_VALUE;
  * @since 1.0
  */
 public abstract class AbstractMazeAlgorithmCliAdapter extends AbstractCliAdapter<AbstractMazeAlgorithm> {
+  /**
+   * The master seed drawn from {@link SecureRandom} if secure-random is used or {@code null} if none was drawn yet.
+   * It is drawn once per run, so the shared state of {@link SecureRandom} is not accessed for every maze.
+   */
+  private Long secureMasterSeed;
+
   /**
    * Code to instantiate a new maze generation algorithm configured with the given parameters.
    *
    * @param commandLine Parsed CLI arguments.
-   * @param obj         Needs to include two {@link Integer} variables as width and height of the maze.
+   * @param obj         Needs to include two {@link Integer} variables as width and height of the maze. May include a
+   *                    {@link Long} as third variable, which is the index of the maze in a batch, and a
+   *                    {@link MazeBuffer} of these dimensions as fourth variable, which is reused for the maze.
    * @return A maze generation algorithm.
    * @throws ParseException
    */
@@ -36,48 +48,104 @@ public abstract class AbstractMazeAlgorithmCliAdapter extends AbstractCliAdapter
     if (obj.length < 2)
       throw new IllegalArgumentException("width and height need to be passed, too");
 
-    return doGenerate((Integer) obj[0], (Integer) obj[1], commandLine);
+    final long mazeIndex = obj.length > 2 ? (Long) obj[2] : 0;
+    final MazeBuffer buffer = obj.length > 3 && obj[3] != null
+        ? (MazeBuffer) obj[3]
+        : new MazeBuffer((Integer) obj[0], (Integer) obj[1]);
+
+    if (!buffer.fits((Integer) obj[0], (Integer) obj[1]))
+      throw new IllegalArgumentException("buffer does not fit the dimensions");
+
+    final AbstractMazeAlgorithm mazeAlgorithm = doGenerate(buffer, createRandom(commandLine, mazeIndex), commandLine);
+    mazeAlgorithm.setSeed(getSeed(commandLine, mazeIndex));
+    mazeAlgorithm.setRandomNumberGeneratorType(getRandomNumberGeneratorType(commandLine, "rng"));
+
+    return mazeAlgorithm;
   }
 
   /**
    * Code to instantiate a new maze generation algorithm configured with the given parameters.
    *
-   * @param width       The width of the maze to generate.
-   * @param height      The height of the maze to generate.
+   * @param buffer      The storage of the maze to generate.
+   * @param random      The random number generator to use.
    * @param commandLine Parsed CLI arguments.
    * @return A maze generation algorithm.
    * @throws ParseException
    */
-  public abstract AbstractMazeAlgorithm doGenerate(int width, int height, CommandLine commandLine) throws ParseException;
+  public abstract AbstractMazeAlgorithm doGenerate(MazeBuffer buffer, RandomNumberGenerator random,
+                                                   CommandLine commandLine)
+      throws ParseException;
 
   /**
    * Can be overwritten to add additional options.
    */
   @Override
   protected void buildOptions() {
-    options.addOption("s", "secure-random", false, "use SecureRandom as random number generator");
+    options.addOption("s", "secure-random", false, "draw the master seed from SecureRandom once per run");
     options.addOption(Option.builder()
             .longOpt("random-seed")
-            .desc("use INT as random seed if secure-random is not used")
+            .desc("use INT as master seed, from which the seed of every maze is derived, if secure-random is not used")
             .hasArg().numberOfArgs(1).argName("INT").type(NUMBER_VALUE)
             .build()
     );
+    options.addOption(Option.builder()
+            .longOpt("rng")
+            .desc("use RNG (xoshiro, splitmix or jdk) as random number generator")
+            .hasArg().numberOfArgs(1).argName("RNG").type(STRING_VALUE)
+            .build()
+    );
   }
 
   /**
-   * Creates a new random number generator.
+   * Creates a new random number generator. If a random seed is given or secure-random is used, the generator of the
+   * maze with index {@code mazeIndex} is seeded with the {@code mazeIndex}-th value of {@link SplitMix64} seeded with
+   * the master seed. So every maze of a batch gets its own stream and the mazes do not depend on the order in which
+   * they are generated.
    *
    * @param commandLine The parsed CLI arguments.
+   * @param mazeIndex   The index of the maze in its batch.
    * @return A new random number generator.
    * @throws ParseException
    */
-  protected Random createRandom(CommandLine commandLine) throws ParseException {
+  protected RandomNumberGenerator createRandom(CommandLine commandLine, long mazeIndex) throws ParseException {
+    final RandomNumberGeneratorType type = getRandomNumberGeneratorType(commandLine, "rng");
+    final Long seed = getSeed(commandLine, mazeIndex);
+
+    if (seed != null)
+      return type.create(seed);
+
+    return type.create();
+  }
+
+  /**
+   * Returns the seed of the random number generator of the maze with index {@code mazeIndex}, i.e. the
+   * {@code mazeIndex}-th value of {@link SplitMix64} seeded with the master seed. The master seed is drawn from
+   * {@link SecureRandom} if secure-random is used and is the random seed otherwise.
+   *
+   * @param commandLine The parsed CLI arguments.
+   * @param mazeIndex   The index of the maze in its batch.
+   * @return The seed or {@code null} if neither a random seed is given nor secure-random is used.
+   * @throws ParseException
+   */
+  protected Long getSeed(CommandLine commandLine, long mazeIndex) throws ParseException {
     if (commandLine.hasOption("secure-random"))
-      return new SecureRandom();
+      return SplitMix64.getValue(getSecureMasterSeed(), mazeIndex);
 
-    if (commandLine.hasOption("random-seed"))
-      return new Random((Long) commandLine.getParsedOptionValue("random-seed"));
+    if (!commandLine.hasOption("random-seed"))
+      return null;
+
+    return SplitMix64.getValue((Long) commandLine.getParsedOptionValue("random-seed"), mazeIndex);
+  }
+
+  /**
+   * Returns the master seed drawn from {@link SecureRandom}. It is drawn on the first call.
+   *
+   * @return The master seed.
+   */
+  private synchronized long getSecureMasterSeed() {
+    if (secureMasterSeed == null)
+      secureMasterSeed = new SecureRandom().nextLong();
 
-    return new Random();
+    return secureMasterSeed;
   }
 }
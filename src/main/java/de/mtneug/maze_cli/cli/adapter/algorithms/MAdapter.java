@@ -6,7 +6,9 @@ package de.mtneug.maze_cli.cli.adapter.algorithms;
 
 import de.mtneug.maze_cli.algorithms.AbstractMazeAlgorithm;
 import de.mtneug.maze_cli.algorithms.M;
+import de.mtneug.maze_cli.algorithms.MazeBuffer;
 import de.mtneug.maze_cli.annotations.AlgorithmAdapter;
+import de.mtneug.maze_cli.util.RandomNumberGenerator;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.ParseException;
@@ -26,18 +28,18 @@ public class MAdapter extends AbstractMazeAlgorithmCliAdapter {
   /**
    * Code to instantiate a new M maze generation algorithm configured with the given options.
    *
-   * @param width       The width of the maze to generate.
-   * @param height      The height of the maze to generate.
+   * @param buffer      The storage of the maze to generate.
+   * @param random      The random number generator to use.
    * @param commandLine Parsed CLI arguments.
    * @return A M maze generation algorithm.
    * @throws ParseException
    */
   @Override
-  public AbstractMazeAlgorithm doGenerate(int width, int height, CommandLine commandLine) throws ParseException {
+  public AbstractMazeAlgorithm doGenerate(MazeBuffer buffer, RandomNumberGenerator random,
+                                          CommandLine commandLine) throws ParseException {
     return new M(
-        width,
-        height,
-        createRandom(commandLine),
+        buffer,
+        random,
         ((Long) commandLine.getParsedOptionValue("m-difficulty")).intValue()
     );
   }
@@ -5,8 +5,10 @@
 package de.mtneug.maze_cli.cli.adapter.algorithms;
 
 import de.mtneug.maze_cli.algorithms.AbstractMazeAlgorithm;
+import de.mtneug.maze_cli.algorithms.MazeBuffer;
 import de.mtneug.maze_cli.algorithms.Prim;
 import de.mtneug.maze_cli.annotations.AlgorithmAdapter;
+import de.mtneug.maze_cli.util.RandomNumberGenerator;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.ParseException;
 
@@ -20,14 +22,15 @@ public class PrimAdapter extends AbstractMazeAlgorithmCliAdapter {
   /**
    * Code to instantiate a new Prim maze generation algorithm configured with the given options.
    *
-   * @param width       The width of the maze to generate.
-   * @param height      The height of the maze to generate.
+   * @param buffer      The storage of the maze to generate.
+   * @param random      The random number generator to use.
    * @param commandLine Parsed CLI arguments.
    * @return A Prim maze generation algorithm.
    * @throws ParseException
    */
   @Override
-  public AbstractMazeAlgorithm doGenerate(int width, int height, CommandLine commandLine) throws ParseException {
-    return new Prim(width, height, createRandom(commandLine));
+  public AbstractMazeAlgorithm doGenerate(MazeBuffer buffer, RandomNumberGenerator random,
+                                          CommandLine commandLine) throws ParseException {
+    return new Prim(buffer, random);
   }
 }
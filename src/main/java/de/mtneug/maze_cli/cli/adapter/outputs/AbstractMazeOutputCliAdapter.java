@@ -5,19 +5,25 @@
 package de.mtneug.maze_cli.cli.adapter.outputs;
 
 import de.mtneug.maze_cli.cli.adapter.AbstractCliAdapter;
+import de.mtneug.maze_cli.exception.CliArgumentException;
 import de.mtneug.maze_cli.exception.MazeSolverNotFoundException;
 import de.mtneug.maze_cli.model.Maze;
 import de.mtneug.maze_cli.model.MazeSolutions;
 import de.mtneug.maze_cli.outputs.AbstractMazeOutput;
 import de.mtneug.maze_cli.solvers.AbstractMazeSolverAlgorithm;
+import de.mtneug.maze_cli.solvers.Heuristic;
 import de.mtneug.maze_cli.solvers.MazeSolverClassRegistry;
 import de.mtneug.maze_cli.solvers.NoneMazeSolverAlgorithm;
+import de.mtneug.maze_cli.util.RandomNumberGenerator;
+import de.mtneug.maze_cli.util.RandomNumberGeneratorType;
+import de.mtneug.maze_cli.util.SplitMix64;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.ParseException;
 
 import java.lang.reflect.Constructor;
 
+import static org.apache.commons.cli.PatternOptionBuilder.NUMBER_VALUE;
 import static org.apache.commons.cli.PatternOptionBuilder.STRING_VALUE;
 
 /**
@@ -32,7 +38,8 @@ public abstract class AbstractMazeOutputCliAdapter extends AbstractCliAdapter<Ab
    * Code to instantiate a new maze output configured with the given parameters.
    *
    * @param commandLine Parsed CLI arguments.
-   * @param obj         Needs to include a maze as first parameter.
+   * @param obj         Needs to include a maze as first parameter. May include a {@link Long} as second parameter,
+   *                    which is the index of the maze in a batch.
    * @return A maze output.
    * @throws ParseException
    */
@@ -41,7 +48,9 @@ public abstract class AbstractMazeOutputCliAdapter extends AbstractCliAdapter<Ab
     if (obj.length < 1)
       throw new IllegalArgumentException("a maze need to be passed, too");
 
-    return doGenerate(createMazeSolutions((Maze) obj[0], commandLine), commandLine);
+    final long mazeIndex = obj.length > 1 ? (Long) obj[1] : 0;
+
+    return doGenerate(createMazeSolutions((Maze) obj[0], mazeIndex, commandLine), commandLine);
   }
 
   /**
@@ -54,21 +63,49 @@ public abstract class AbstractMazeOutputCliAdapter extends AbstractCliAdapter<Ab
    */
   public abstract AbstractMazeOutput doGenerate(MazeSolutions mazeSolutions, CommandLine commandLine) throws ParseException;
 
+  /**
+   * Returns whether the storage of a maze can be reused for the next maze once the output of this adapter has been
+   * called. This is not the case, if the output keeps using the maze afterwards or depends on its object identity.
+   *
+   * @return {@code true} if the storage can be reused, {@code false} otherwise.
+   */
+  public boolean canReuseMaze() {
+    return true;
+  }
+
   /**
    * Finds the solution with the given solver or with the default "none" solver.
    *
    * @param maze        The maze to solve.
+   * @param mazeIndex   The index of the maze in its batch.
    * @param commandLine Parsed CLI arguments.
    * @return The maze solutions object.
+   * @throws CliArgumentException if the given heuristic or random number generator does not exist or is not supported
+   *                              by the solver.
+   * @throws ParseException
    */
-  protected MazeSolutions createMazeSolutions(Maze maze, CommandLine commandLine) {
+  protected MazeSolutions createMazeSolutions(Maze maze, long mazeIndex, CommandLine commandLine)
+      throws ParseException {
     String solverName = NoneMazeSolverAlgorithm.NAME;
+    Heuristic heuristic = null;
 
     if (commandLine.hasOption("solver-name"))
       solverName = commandLine.getOptionValue("solver-name");
 
+    if (commandLine.hasOption("solver-heuristic")) {
+      heuristic = Heuristic.getHeuristic(commandLine.getOptionValue("solver-heuristic"));
+
+      if (heuristic == null)
+        throw new CliArgumentException("The heuristic " + commandLine.getOptionValue("solver-heuristic") +
+            " could not be found");
+    }
+
+    checkSolverOptions(solverName, heuristic != null, commandLine);
+
+    final RandomNumberGenerator random = createSolverRandom(mazeIndex, commandLine);
+
     try {
-      return doCreateMazeSolutions(maze, solverName);
+      return doCreateMazeSolutions(maze, solverName, heuristic, random);
     } catch (Exception e) {
       System.err.println("solver returned with an error");
       System.err.println("trying again with the " + NoneMazeSolverAlgorithm.NAME + " solver");
@@ -76,7 +113,7 @@ public abstract class AbstractMazeOutputCliAdapter extends AbstractCliAdapter<Ab
       e.printStackTrace();
 
       try {
-        return doCreateMazeSolutions(maze, NoneMazeSolverAlgorithm.NAME);
+        return doCreateMazeSolutions(maze, NoneMazeSolverAlgorithm.NAME, null, null);
       } catch (Exception e1) {
         // the none solver throws no exceptions
         throw new IllegalStateException("solver returned again with an error");
@@ -85,26 +122,103 @@ public abstract class AbstractMazeOutputCliAdapter extends AbstractCliAdapter<Ab
   }
 
   /**
-   * Solves the {@code maze} with a solver named {@code solverName}.
+   * Creates the random number generator for the solver. If a random seed is given, the generator of the maze with
+   * index {@code mazeIndex} is seeded with the {@code mazeIndex}-th value of {@link SplitMix64} seeded with the random
+   * seed.
+   *
+   * @param mazeIndex   The index of the maze in its batch.
+   * @param commandLine Parsed CLI arguments.
+   * @return A new random number generator.
+   * @throws ParseException
+   */
+  protected RandomNumberGenerator createSolverRandom(long mazeIndex, CommandLine commandLine) throws ParseException {
+    final RandomNumberGeneratorType type = getRandomNumberGeneratorType(commandLine, "solver-rng");
+
+    if (commandLine.hasOption("solver-random-seed")) {
+      final long masterSeed = (Long) commandLine.getParsedOptionValue("solver-random-seed");
+      return type.create(SplitMix64.getValue(masterSeed, mazeIndex));
+    }
+
+    return type.create();
+  }
+
+  /**
+   * Solves the {@code maze} with a solver named {@code solverName}. If a {@code heuristic} is given and the solver has
+   * a constructor accepting one, it is passed to the solver. Otherwise, if the solver has a constructor accepting a
+   * random number generator, {@code random} is passed to it. Other solvers ignore both.
    *
    * @param maze       The maze to solve.
    * @param solverName The name of the solver to use for solving the maze.
+   * @param heuristic  The heuristic to use or {@code null} for the default of the solver.
+   * @param random     The random number generator for the solver.
    * @return The maze solutions object.
    * @throws MazeSolverNotFoundException if the solver does not exists.
    * @throws Exception                   if the solver throws an exception.
    */
-  private MazeSolutions doCreateMazeSolutions(Maze maze, String solverName) throws Exception {
+  private MazeSolutions doCreateMazeSolutions(Maze maze, String solverName, Heuristic heuristic,
+                                              RandomNumberGenerator random) throws Exception {
     Class<? extends AbstractMazeSolverAlgorithm> solverClass = MazeSolverClassRegistry.getInstance().getClass(solverName);
 
     if (solverClass == null)
       throw new MazeSolverNotFoundException("The solver " + solverName + " could not be found");
 
-    Constructor<? extends AbstractMazeSolverAlgorithm> solverConstructor = solverClass.getConstructor(Maze.class);
-    AbstractMazeSolverAlgorithm solver = solverConstructor.newInstance(maze);
+    AbstractMazeSolverAlgorithm solver;
+
+    if (heuristic != null && accepts(solverClass, Heuristic.class)) {
+      Constructor<? extends AbstractMazeSolverAlgorithm> solverConstructor =
+          solverClass.getConstructor(Maze.class, Heuristic.class);
+      solver = solverConstructor.newInstance(maze, heuristic);
+    } else if (random != null && accepts(solverClass, RandomNumberGenerator.class)) {
+      Constructor<? extends AbstractMazeSolverAlgorithm> solverConstructor =
+          solverClass.getConstructor(Maze.class, RandomNumberGenerator.class);
+      solver = solverConstructor.newInstance(maze, random);
+    } else {
+      Constructor<? extends AbstractMazeSolverAlgorithm> solverConstructor = solverClass.getConstructor(Maze.class);
+      solver = solverConstructor.newInstance(maze);
+    }
 
     return solver.call();
   }
 
+  /**
+   * Checks whether the solver supports the given solver options. Unknown solvers are reported when the maze is solved.
+   *
+   * @param solverName   The name of the solver.
+   * @param hasHeuristic Whether a heuristic is given.
+   * @param commandLine  Parsed CLI arguments.
+   * @throws CliArgumentException if a heuristic or random number generator is given, but not supported by the solver.
+   */
+  private void checkSolverOptions(String solverName, boolean hasHeuristic, CommandLine commandLine) {
+    final Class<? extends AbstractMazeSolverAlgorithm> solverClass =
+        MazeSolverClassRegistry.getInstance().getClass(solverName);
+
+    if (solverClass == null)
+      return;
+
+    if (hasHeuristic && !accepts(solverClass, Heuristic.class))
+      throw new CliArgumentException("The solver " + solverName + " does not support a heuristic");
+
+    if ((commandLine.hasOption("solver-rng") || commandLine.hasOption("solver-random-seed")) &&
+        !accepts(solverClass, RandomNumberGenerator.class))
+      throw new CliArgumentException("The solver " + solverName + " does not support a random number generator");
+  }
+
+  /**
+   * Checks whether the given solver class has a constructor accepting a maze and an object of {@code parameterClass}.
+   *
+   * @param solverClass    The solver class.
+   * @param parameterClass The class of the second parameter.
+   * @return {@code true} if such an object can be passed, {@code false} otherwise.
+   */
+  private boolean accepts(Class<? extends AbstractMazeSolverAlgorithm> solverClass, Class<?> parameterClass) {
+    try {
+      solverClass.getConstructor(Maze.class, parameterClass);
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
   /**
    * Add additional options.
    */
@@ -118,5 +232,26 @@ public abstract class AbstractMazeOutputCliAdapter extends AbstractCliAdapter<Ab
             .hasArg().numberOfArgs(1).argName("SOLVER").type(STRING_VALUE)
             .build()
     );
+
+    options.addOption(Option.builder()
+            .longOpt("solver-heuristic")
+            .desc("use HEURISTIC (manhattan or zero) for solvers supporting one")
+            .hasArg().numberOfArgs(1).argName("HEURISTIC").type(STRING_VALUE)
+            .build()
+    );
+
+    options.addOption(Option.builder()
+            .longOpt("solver-rng")
+            .desc("use RNG (xoshiro, splitmix or jdk) as random number generator for solvers using one")
+            .hasArg().numberOfArgs(1).argName("RNG").type(STRING_VALUE)
+            .build()
+    );
+
+    options.addOption(Option.builder()
+            .longOpt("solver-random-seed")
+            .desc("use INT as master seed, from which the seed of the solver of every maze is derived")
+            .hasArg().numberOfArgs(1).argName("INT").type(NUMBER_VALUE)
+            .build()
+    );
   }
 }
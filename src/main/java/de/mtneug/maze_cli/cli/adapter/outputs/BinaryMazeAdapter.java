@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.cli.adapter.outputs;
+
+import de.mtneug.maze_cli.annotations.OutputAdapter;
+import de.mtneug.maze_cli.model.MazeSolutions;
+import de.mtneug.maze_cli.outputs.AbstractMazeOutput;
+import de.mtneug.maze_cli.outputs.BinaryMazeOutput;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.ParseException;
+
+/**
+ * Adapter for the binary maze output. The written files can be loaded again with the {@code load} command.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@OutputAdapter(name = "maze")
+public class BinaryMazeAdapter extends AbstractFileOutputAdapter {
+  /**
+   * Code to instantiate a new binary maze output configured with the given parameters.
+   *
+   * @param mazeSolutions The maze and its solution(s) to output.
+   * @param commandLine   Parsed CLI arguments.
+   * @return The returned object of the binary maze output.
+   * @throws ParseException
+   */
+  @Override
+  public AbstractMazeOutput doGenerate(MazeSolutions mazeSolutions, CommandLine commandLine) throws ParseException {
+    return new BinaryMazeOutput(
+        mazeSolutions,
+        getPath(commandLine)
+    );
+  }
+}
@@ -32,4 +32,15 @@ public class GuiAdapter extends AbstractMazeOutputCliAdapter {
   public AbstractMazeOutput doGenerate(MazeSolutions mazeSolutions, CommandLine commandLine) throws ParseException {
     return new GuiOutput(mazeSolutions);
   }
+
+  /**
+   * Returns whether the storage of a maze can be reused for the next maze. The GUI displays the maze until the window
+   * is closed, so it can not.
+   *
+   * @return {@code false}
+   */
+  @Override
+  public boolean canReuseMaze() {
+    return false;
+  }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.cli.adapter.outputs;
+
+import de.mtneug.maze_cli.annotations.OutputAdapter;
+import de.mtneug.maze_cli.exception.CliArgumentException;
+import de.mtneug.maze_cli.model.MazeSolutions;
+import de.mtneug.maze_cli.outputs.AbstractMazeOutput;
+import de.mtneug.maze_cli.outputs.PngOutput;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.ParseException;
+
+import static org.apache.commons.cli.PatternOptionBuilder.NUMBER_VALUE;
+
+/**
+ * Adapter for the maze PNG output.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@OutputAdapter(name = "png")
+public class PngAdapter extends AbstractFileOutputAdapter {
+  /**
+   * Code to instantiate a new maze PNG output configured with the given parameters.
+   *
+   * @param mazeSolutions The maze and its solution(s) to output.
+   * @param commandLine   Parsed CLI arguments.
+   * @return The returned object of the maze PNG output.
+   * @throws CliArgumentException if the given cell or wall size is not positive.
+   * @throws ParseException
+   */
+  @Override
+  public AbstractMazeOutput doGenerate(MazeSolutions mazeSolutions, CommandLine commandLine) throws ParseException {
+    return new PngOutput(
+        mazeSolutions,
+        getPath(commandLine),
+        getPixels(commandLine, "cell-pixels", PngOutput.DEFAULT_CELL_PIXELS),
+        getPixels(commandLine, "wall-pixels", PngOutput.DEFAULT_WALL_PIXELS)
+    );
+  }
+
+  /**
+   * Add additional options.
+   */
+  @Override
+  protected void buildOptions() {
+    super.buildOptions();
+
+    options.addOption(Option.builder()
+            .longOpt("cell-pixels")
+            .desc("set the width and height of a cell to INT pixels, defaults to " + PngOutput.DEFAULT_CELL_PIXELS)
+            .hasArg().numberOfArgs(1).argName("INT").type(NUMBER_VALUE)
+            .build()
+    );
+
+    options.addOption(Option.builder()
+            .longOpt("wall-pixels")
+            .desc("set the thickness of a wall to INT pixels, defaults to " + PngOutput.DEFAULT_WALL_PIXELS)
+            .hasArg().numberOfArgs(1).argName("INT").type(NUMBER_VALUE)
+            .build()
+    );
+  }
+
+  /**
+   * Returns the specified size in pixels.
+   *
+   * @param commandLine  The parsed CLI arguments.
+   * @param option       The name of the option.
+   * @param defaultValue The size if the option is not given.
+   * @return The size.
+   * @throws CliArgumentException if the given size is not positive.
+   * @throws ParseException
+   */
+  private static int getPixels(CommandLine commandLine, String option, int defaultValue) throws ParseException {
+    if (!commandLine.hasOption(option))
+      return defaultValue;
+
+    final long pixels = (Long) commandLine.getParsedOptionValue(option);
+
+    if (pixels < 1 || pixels > Integer.MAX_VALUE)
+      throw new CliArgumentException("The " + option + " must be a positive number");
+
+    return (int) pixels;
+  }
+}
@@ -35,4 +35,15 @@ public class SeminarSerializationAdapter extends AbstractFileOutputAdapter {
         getPath(commandLine)
     );
   }
+
+  /**
+   * Returns whether the storage of a maze can be reused for the next maze. The serialization identifies a maze by its
+   * hash code, so every maze needs its own object.
+   *
+   * @return {@code false}
+   */
+  @Override
+  public boolean canReuseMaze() {
+    return false;
+  }
 }
@@ -12,7 +12,7 @@ import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.ParseException;
 
 /**
- * Adapter for the maze SVG output.
+ * Adapter for the maze SVG output. Files with the extension {@value SvgOutput#SVGZ_EXTENSION} are gzip compressed.
  *
  * @author Matthias Neugebauer
  * @version 1.0
@@ -4,6 +4,10 @@
 
 package de.mtneug.maze_cli.cli.commands;
 
+import de.mtneug.maze_cli.cli.adapter.MazeOutputCliAdapterRegistry;
+import de.mtneug.maze_cli.cli.adapter.outputs.AbstractMazeOutputCliAdapter;
+import de.mtneug.maze_cli.exception.MazeOutputNotFoundException;
+
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -33,4 +37,22 @@ public abstract class AbstractCliCommand implements Callable<Object> {
    * Prints how to use this command.
    */
   public abstract void printUsage();
+
+  /**
+   * Returns the maze output adapter.
+   *
+   * @param outputArgument The output argument.
+   * @return The maze output adapter.
+   * @throws Exception
+   */
+  protected AbstractMazeOutputCliAdapter getMazeOutputAdapter(String outputArgument) throws Exception {
+    String outputName = outputArgument.toLowerCase();
+    AbstractMazeOutputCliAdapter adapter = MazeOutputCliAdapterRegistry.getInstance().getAdapter(outputName);
+
+    if (adapter == null)
+      throw new MazeOutputNotFoundException("The output " + outputName + " could not be found");
+
+    return adapter;
+  }
+
 }
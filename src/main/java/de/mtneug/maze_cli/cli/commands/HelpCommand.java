@@ -48,6 +48,8 @@ public class HelpCommand extends AbstractCliCommand {
             "\n" +
             "    generate WIDTH:HEIGHT ALGO [ALGO-ARGS...] OUTPUT [OUTPUT-ARGS...]\n" +
             "    multi-generate TIMES WIDTH:HEIGHT ALGO [ALGO-ARGS...] OUTPUT [OUTPUT-ARGS...]\n" +
+            "    sweep TIMES WIDTHS HEIGHTS ALGO [ALGO-ARGS...] OUTPUT [OUTPUT-ARGS...]\n" +
+            "    load FILE OUTPUT [OUTPUT-ARGS...]\n" +
             "    help"
     );
   }
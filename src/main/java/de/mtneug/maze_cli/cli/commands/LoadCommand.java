@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.cli.commands;
+
+import de.mtneug.maze_cli.algorithms.BinaryMazeReader;
+import de.mtneug.maze_cli.annotations.CliCommand;
+import de.mtneug.maze_cli.cli.adapter.outputs.AbstractMazeOutputCliAdapter;
+import de.mtneug.maze_cli.exception.CliArgumentException;
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.outputs.CsvWriterService;
+
+import java.util.List;
+
+/**
+ * CLI command to load a maze written by the {@code maze} output and output it somehow, e.g. to solve or render it
+ * again without generating it again.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@CliCommand(name = "load")
+public class LoadCommand extends AbstractCliCommand {
+  /**
+   * Index of the file argument.
+   */
+  public final static int ARGUMENTS_FILE_INDEX = 0;
+
+  /**
+   * Index of the output argument.
+   */
+  public final static int ARGUMENTS_OUTPUT_INDEX = 1;
+
+  /**
+   * Number of arguments needed.
+   */
+  public final static int NUMBER_OF_NEEDED_ARGUMENTS = 2;
+
+  /**
+   * The constructor.
+   *
+   * @param args List of arguments.
+   */
+  public LoadCommand(List<String> args) {
+    super(args);
+  }
+
+  /**
+   * Call the command.
+   *
+   * @return The returned object of the output.
+   * @throws Exception
+   */
+  @Override
+  public Object call() throws Exception {
+    if (arguments.size() < NUMBER_OF_NEEDED_ARGUMENTS)
+      throw new CliArgumentException("Not all arguments were specified");
+
+    final AbstractMazeOutputCliAdapter mazeOutputAdapter = getMazeOutputAdapter(
+        arguments.get(ARGUMENTS_OUTPUT_INDEX));
+    final List<String> mazeOutputArgs = arguments.subList(ARGUMENTS_OUTPUT_INDEX + 1, arguments.size());
+
+    final Maze maze = new BinaryMazeReader(arguments.get(ARGUMENTS_FILE_INDEX)).call();
+
+    try {
+      // the output adapter solves the maze
+      return mazeOutputAdapter.generate(mazeOutputArgs, maze, 0L).call();
+    } finally {
+      // make sure all statistics have been written
+      CsvWriterService.getInstance().closeAll();
+    }
+  }
+
+  /**
+   * Prints how to use this command.
+   */
+  @Override
+  public void printUsage() {
+    System.out.println(
+        "Usage maze load FILE OUTPUT [OUTPUT-ARGS...]\n" +
+            "\n" +
+            "    FILE:\t\tThe maze file written by the maze output\n" +
+            "    OUTPUT:\t\tHow to output the maze"
+    );
+  }
+}
@@ -4,22 +4,25 @@
 
 package de.mtneug.maze_cli.cli.commands;
 
+import de.mtneug.maze_cli.algorithms.AbstractMazeAlgorithm;
+import de.mtneug.maze_cli.algorithms.MazeBuffer;
 import de.mtneug.maze_cli.annotations.CliCommand;
 import de.mtneug.maze_cli.cli.adapter.MazeAlgorithmCliAdapterRegistry;
-import de.mtneug.maze_cli.cli.adapter.MazeOutputCliAdapterRegistry;
 import de.mtneug.maze_cli.cli.adapter.algorithms.AbstractMazeAlgorithmCliAdapter;
 import de.mtneug.maze_cli.cli.adapter.outputs.AbstractMazeOutputCliAdapter;
 import de.mtneug.maze_cli.exception.CliArgumentException;
 import de.mtneug.maze_cli.exception.MazeAlgorithmNotFoundException;
-import de.mtneug.maze_cli.exception.MazeOutputNotFoundException;
+import de.mtneug.maze_cli.model.AbstractAlgorithm;
+import de.mtneug.maze_cli.model.AlgorithmTimingSummary;
 import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.outputs.AbstractMazeOutput;
+import de.mtneug.maze_cli.outputs.CsvWriterService;
 
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
 
 /**
  * CLI command to generate multiple mazes and output them somehow.
@@ -55,16 +58,77 @@ public class MultiGenerateCommand extends AbstractCliCommand {
    */
   public final static int NUMBER_OF_NEEDED_ARGUMENTS = 4;
 
+  /**
+   * Prefix of the option setting the maximum number of mazes in flight.
+   */
+  public final static String IN_FLIGHT_OPTION = "--in-flight=";
+
+  /**
+   * Default maximum number of mazes in flight.
+   */
+  public final static int DEFAULT_MAX_IN_FLIGHT = 2 * Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Prefix of the option setting the time between two progress reports in seconds.
+   */
+  public final static String REPORT_INTERVAL_OPTION = "--report-interval=";
+
+  /**
+   * Prefix of the option setting the format of the progress reports.
+   */
+  public final static String REPORT_FORMAT_OPTION = "--report-format=";
+
+  /**
+   * Default time between two progress reports in seconds.
+   */
+  public final static int DEFAULT_REPORT_INTERVAL = 1;
+
   /**
    * Index of the output argument.
    */
   private int arguments_output_index;
 
   /**
-   * Whether to print "." or "F" when a generation is complete.
+   * Whether to periodically print progress reports.
    */
   private boolean printingProgress = true;
 
+  /**
+   * The time between two progress reports in seconds.
+   */
+  private int reportInterval = DEFAULT_REPORT_INTERVAL;
+
+  /**
+   * The format of the progress reports.
+   */
+  private ProgressReporter.Format reportFormat = ProgressReporter.Format.TEXT;
+
+  /**
+   * The reporter of the running batch or {@code null} if no progress is printed.
+   */
+  private ProgressReporter progressReporter;
+
+  /**
+   * Maximum number of mazes, which are generated or output at the same time or wait for it.
+   */
+  private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+  /**
+   * Summary of the timings of all maze generations.
+   */
+  private final AlgorithmTimingSummary generationSummary = new AlgorithmTimingSummary("generation");
+
+  /**
+   * Summary of the timings of all maze solvings.
+   */
+  private final AlgorithmTimingSummary solvingSummary = new AlgorithmTimingSummary("solving");
+
+  /**
+   * The maze buffer of every worker thread. A task only starts after the previous task of its thread has output its
+   * maze, so the buffer can be reused.
+   */
+  private final ThreadLocal<MazeBuffer> mazeBuffers = new ThreadLocal<>();
+
   /**
    * The constructor.
    *
@@ -82,69 +146,265 @@ public class MultiGenerateCommand extends AbstractCliCommand {
    */
   @Override
   public Object call() throws Exception {
+    parseOptions();
+
     if (arguments.size() < NUMBER_OF_NEEDED_ARGUMENTS)
       throw new CliArgumentException("Not all arguments were specified");
 
-    arguments_output_index = findOutputArgument();
+    arguments_output_index = findOutputArgument(ARGUMENTS_OUTPUT_START_INDEX);
 
     // parse dimensions and times
-    final int times = parseTimes();
+    final int times = parseTimes(arguments.get(ARGUMENTS_TIMES_INDEX));
     final Object[] dimensions = parseDimensions();
 
     // find adapter
-    final AbstractMazeAlgorithmCliAdapter mazeAlgorithmAdapter = getMazeAlgorithmAdapter();
-    final AbstractMazeOutputCliAdapter mazeOutputAdapter = getMazeOutputAdapter();
+    final AbstractMazeAlgorithmCliAdapter mazeAlgorithmAdapter = getMazeAlgorithmAdapter(
+        arguments.get(ARGUMENTS_ALGORITHM_INDEX));
+    final AbstractMazeOutputCliAdapter mazeOutputAdapter = getMazeOutputAdapter(arguments.get(arguments_output_index));
 
     // separate arguments for generator and output
     final List<String> mazeAlgorithmArgs = arguments.subList(ARGUMENTS_ALGORITHM_INDEX + 1, arguments_output_index);
     final List<String> mazeOutputArgs = arguments.subList(arguments_output_index + 1, arguments.size());
 
-    // thread data structures
-    final List<Callable<Object>> callableList = new LinkedList<>();
+    final MazeTaskFactory taskFactory = createTaskFactory(
+        mazeAlgorithmAdapter, mazeAlgorithmArgs, dimensions, mazeOutputAdapter, mazeOutputArgs
+    );
+
+    runTasks(repeat(Collections.singletonList(taskFactory), times), times);
+    printSummary();
+
+    return null;
+  }
+
+  /**
+   * Creates a factory of tasks generating and outputting a single maze.
+   *
+   * @param mazeAlgorithmAdapter The maze generation algorithm adapter.
+   * @param mazeAlgorithmArgs    The arguments for the maze generation algorithm.
+   * @param dimensions           The dimensions of the maze.
+   * @param mazeOutputAdapter    The maze output adapter.
+   * @param mazeOutputArgs       The arguments for the maze output.
+   * @return The task factory.
+   */
+  protected MazeTaskFactory createTaskFactory(final AbstractMazeAlgorithmCliAdapter mazeAlgorithmAdapter,
+                                              final List<String> mazeAlgorithmArgs, final Object[] dimensions,
+                                              final AbstractMazeOutputCliAdapter mazeOutputAdapter,
+                                              final List<String> mazeOutputArgs) {
+    final boolean reusingMazes = mazeOutputAdapter.canReuseMaze();
+
+    return new MazeTaskFactory() {
+      @Override
+      public Callable<Object> createTask(final long mazeIndex) {
+        return new Callable<Object>() {
+          @Override
+          public Object call() throws Exception {
+            try {
+              // the maze index lets the adapters derive the seeds of this maze
+              final Object[] algorithmObjects = {
+                  dimensions[0], dimensions[1], mazeIndex,
+                  reusingMazes ? getMazeBuffer((Integer) dimensions[0], (Integer) dimensions[1]) : null
+              };
+
+              final long start = System.nanoTime();
+              AbstractMazeAlgorithm mazeAlgorithm = mazeAlgorithmAdapter.generate(mazeAlgorithmArgs, algorithmObjects);
+              Maze maze = mazeAlgorithm.call();
+
+              // the output adapter solves the maze
+              final long generated = System.nanoTime();
+              AbstractMazeOutput mazeOutput = mazeOutputAdapter.generate(mazeOutputArgs, maze, mazeIndex);
+
+              final long solved = System.nanoTime();
+              Object output = mazeOutput.call();
+
+              final long outputted = System.nanoTime();
+
+              generationSummary.add(mazeAlgorithm);
+
+              if (mazeOutput.getMazeSolutions().getMazeSolver() instanceof AbstractAlgorithm)
+                solvingSummary.add((AbstractAlgorithm<?>) mazeOutput.getMazeSolutions().getMazeSolver());
+
+              if (progressReporter != null)
+                progressReporter.recordCompleted(generated - start, solved - generated, outputted - solved);
+
+              return output;
+            } catch (Exception e) {
+              if (progressReporter != null)
+                progressReporter.recordFailed();
+
+              throw e;
+            }
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * Returns the maze buffer of the calling thread. A new one is created if the thread has none yet or if its buffer has
+   * other dimensions.
+   *
+   * @param width  The width of the maze.
+   * @param height The height of the maze.
+   * @return The maze buffer.
+   */
+  private MazeBuffer getMazeBuffer(int width, int height) {
+    MazeBuffer buffer = mazeBuffers.get();
+
+    if (buffer == null || !buffer.fits(width, height)) {
+      buffer = new MazeBuffer(width, height);
+      mazeBuffers.set(buffer);
+    }
+
+    return buffer;
+  }
+
+  /**
+   * Returns an iterator, which returns {@code times} tasks of every factory of {@code taskFactories} in a row. The
+   * tasks are numbered consecutively starting with 0, so the index of a maze only depends on its position and not on
+   * the order in which the tasks are run.
+   *
+   * @param taskFactories The task factories.
+   * @param times         How many tasks of every factory are returned.
+   * @return The iterator.
+   */
+  protected Iterator<Callable<Object>> repeat(final List<MazeTaskFactory> taskFactories, final int times) {
+    return new Iterator<Callable<Object>>() {
+      private long index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < taskFactories.size() * (long) times;
+      }
+
+      @Override
+      public Callable<Object> next() {
+        if (!hasNext())
+          throw new NoSuchElementException();
+
+        final long mazeIndex = index++;
+        return taskFactories.get((int) (mazeIndex / times)).createTask(mazeIndex);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  /**
+   * Runs all tasks on a shared executor. At most {@link #maxInFlight} tasks are submitted and not yet consumed, and
+   * results are dropped as soon as they are done, so the memory use does not depend on the number of tasks. All tasks
+   * are run even if some fail, the first failure is thrown at the end. If the progress is printed, a report is printed
+   * periodically and when all tasks are done. Finally all statistics files are closed.
+   *
+   * @param tasks     The tasks to run.
+   * @param taskCount The number of tasks.
+   * @throws Exception the first exception thrown by a task.
+   */
+  protected void runTasks(Iterator<Callable<Object>> tasks, long taskCount) throws Exception {
     final ExecutorService executorService = Executors.newWorkStealingPool();
+    final CompletionService<Object> completionService = new ExecutorCompletionService<>(executorService);
+    ExecutionException firstException = null;
+    int inFlight = 0;
+
+    // set before the first submission, so every task sees the reporter
+    if (printingProgress) {
+      progressReporter = new ProgressReporter(taskCount, reportFormat, reportInterval * 1000L, System.out);
+      progressReporter.start();
+    }
 
-    // create callables
-    for (int i = 0; i < times; i++)
-      callableList.add(new Callable<Object>() {
-        @Override
-        public Object call() throws Exception {
-          try {
-            Maze maze = mazeAlgorithmAdapter.generate(mazeAlgorithmArgs, dimensions).call();
-            Object output = mazeOutputAdapter.generate(mazeOutputArgs, maze).call();
+    try {
+      while (tasks.hasNext() || inFlight > 0) {
+        for (; tasks.hasNext() && inFlight < maxInFlight; inFlight++)
+          completionService.submit(tasks.next());
+
+        if (progressReporter != null)
+          progressReporter.setInFlight(inFlight);
+
+        try {
+          completionService.take().get();
+        } catch (ExecutionException e) {
+          if (firstException == null)
+            firstException = e;
+        }
 
-            if (printingProgress)
-              System.out.print(".");
+        inFlight--;
+      }
+    } finally {
+      executorService.shutdownNow();
 
-            return output;
-          } catch (Exception e) {
-            if (printingProgress)
-              System.out.print("F");
+      if (progressReporter != null) {
+        progressReporter.setInFlight(inFlight);
+        progressReporter.stop();
+        progressReporter = null;
+      }
 
-            throw e;
-          }
+      // make sure all statistics have been written
+      CsvWriterService.getInstance().closeAll();
+    }
+
+    if (firstException != null)
+      throw firstException;
+  }
+
+  /**
+   * Prints the summary of the timings of all generated and solved mazes, if the progress is printed as text.
+   */
+  protected void printSummary() {
+    if (!printingProgress || reportFormat != ProgressReporter.Format.TEXT)
+      return;
+
+    System.out.println(generationSummary);
+    System.out.println(solvingSummary);
+  }
+
+  /**
+   * Parses and removes the options given before the first argument.
+   */
+  protected void parseOptions() {
+    while (!arguments.isEmpty() && arguments.get(0).startsWith("--")) {
+      final String option = arguments.remove(0);
+
+      if (option.startsWith(IN_FLIGHT_OPTION)) {
+        try {
+          maxInFlight = Integer.parseInt(option.substring(IN_FLIGHT_OPTION.length()));
+        } catch (NumberFormatException e) {
+          throw new CliArgumentException("in-flight must be an integer");
         }
-      });
 
-    // run and checks for possible Exceptions
-    for (Future<Object> future : executorService.invokeAll(callableList))
-      future.get();
+        if (maxInFlight < 1)
+          throw new CliArgumentException("in-flight must be positive");
+      } else if (option.startsWith(REPORT_INTERVAL_OPTION)) {
+        try {
+          reportInterval = Integer.parseInt(option.substring(REPORT_INTERVAL_OPTION.length()));
+        } catch (NumberFormatException e) {
+          throw new CliArgumentException("report-interval must be an integer");
+        }
 
-    // new line
-    System.out.println();
+        if (reportInterval < 1)
+          throw new CliArgumentException("report-interval must be positive");
+      } else if (option.startsWith(REPORT_FORMAT_OPTION)) {
+        reportFormat = ProgressReporter.Format.getFormat(option.substring(REPORT_FORMAT_OPTION.length()));
 
-    return null;
+        if (reportFormat == null)
+          throw new CliArgumentException("report-format must be text or json");
+      } else
+        throw new CliArgumentException("Unknown option " + option);
+    }
   }
 
   /**
    * Parses the times argument.
    *
+   * @param timesStr The times argument.
    * @return The parsed times argument.
    */
-  private int parseTimes() {
+  protected int parseTimes(String timesStr) {
     int times;
 
     try {
-      times = Integer.parseInt(arguments.get(ARGUMENTS_TIMES_INDEX));
+      times = Integer.parseInt(timesStr);
     } catch (Exception e) {
       throw new CliArgumentException("times must be an integer");
     }
@@ -177,10 +437,11 @@ public class MultiGenerateCommand extends AbstractCliCommand {
   /**
    * Finds the index of the output argument.
    *
+   * @param startIndex The index of the first argument, which could be the output argument.
    * @return The index of the output argument.
    */
-  private int findOutputArgument() {
-    for (int i = ARGUMENTS_OUTPUT_START_INDEX; i < arguments.size(); i++)
+  protected int findOutputArgument(int startIndex) {
+    for (int i = startIndex; i < arguments.size(); i++)
       if (!arguments.get(i).startsWith("-"))
         return i;
 
@@ -190,11 +451,12 @@ public class MultiGenerateCommand extends AbstractCliCommand {
   /**
    * Returns the maze generation algorithm adapter.
    *
+   * @param algorithmArgument The algorithm argument.
    * @return The maze generation algorithm adapter.
    * @throws Exception
    */
-  private AbstractMazeAlgorithmCliAdapter getMazeAlgorithmAdapter() throws Exception {
-    String algorithmName = arguments.get(ARGUMENTS_ALGORITHM_INDEX).toLowerCase();
+  protected AbstractMazeAlgorithmCliAdapter getMazeAlgorithmAdapter(String algorithmArgument) throws Exception {
+    String algorithmName = algorithmArgument.toLowerCase();
     AbstractMazeAlgorithmCliAdapter adapter = MazeAlgorithmCliAdapterRegistry.getInstance().getAdapter(algorithmName);
 
     if (adapter == null)
@@ -204,37 +466,43 @@ public class MultiGenerateCommand extends AbstractCliCommand {
   }
 
   /**
-   * Returns the maze output adapter.
+   * Returns whether progress reports will be printed periodically.
    *
-   * @return The maze output adapter.
-   * @throws Exception
+   * @return {@code true} if they will be printed, {@code false} otherwise.
    */
-  private AbstractMazeOutputCliAdapter getMazeOutputAdapter() throws Exception {
-    String outputName = arguments.get(arguments_output_index).toLowerCase();
-    AbstractMazeOutputCliAdapter adapter = MazeOutputCliAdapterRegistry.getInstance().getAdapter(outputName);
-
-    if (adapter == null)
-      throw new MazeOutputNotFoundException("The output " + outputName + " could not be found");
+  public boolean isPrintingProgress() {
+    return printingProgress;
+  }
 
-    return adapter;
+  /**
+   * Set whether progress reports will be printed periodically.
+   *
+   * @param printingProgress Whether they are to be printed.
+   */
+  public void setPrintingProgress(boolean printingProgress) {
+    this.printingProgress = printingProgress;
   }
 
   /**
-   * Returns whether "." or "F" will be printed after each generated and outputed maze.
+   * Returns the maximum number of mazes, which are generated or output at the same time or wait for it.
    *
-   * @return {@code true} if it will be printed, {@code false} otherwise.
+   * @return The maximum number of mazes in flight.
    */
-  public boolean isPrintingProgress() {
-    return printingProgress;
+  public int getMaxInFlight() {
+    return maxInFlight;
   }
 
   /**
-   * Set whether "." or "F" will be printed after each generated and outputed maze.
+   * Sets the maximum number of mazes, which are generated or output at the same time or wait for it.
    *
-   * @param printingProgress Whether it to be printed.
+   * @param maxInFlight The maximum number of mazes in flight.
+   * @throws IllegalArgumentException if {@code maxInFlight} is not positive.
    */
-  public void setPrintingProgress(boolean printingProgress) {
-    this.printingProgress = printingProgress;
+  public void setMaxInFlight(int maxInFlight) {
+    if (maxInFlight < 1)
+      throw new IllegalArgumentException("maxInFlight must be positive");
+
+    this.maxInFlight = maxInFlight;
   }
 
   /**
@@ -243,8 +511,12 @@ public class MultiGenerateCommand extends AbstractCliCommand {
   @Override
   public void printUsage() {
     System.out.println(
-        "Usage maze multi-generate TIMES WIDTH:HEIGHT ALGO [ALGO-ARGS...] OUTPUT [OUTPUT-ARGS...]\n" +
+        "Usage maze multi-generate [--in-flight=N] [--report-interval=S] [--report-format=FORMAT] TIMES WIDTH:HEIGHT " +
+            "ALGO [ALGO-ARGS...] OUTPUT [OUTPUT-ARGS...]\n" +
             "\n" +
+            "    N:\t\t\tMaximum number of mazes in flight (default: 2 * number of processors)\n" +
+            "    S:\t\t\tSeconds between two progress reports (default: 1)\n" +
+            "    FORMAT:\t\tFormat of the progress reports, text or json (default: text)\n" +
             "    TIMES:\t\tHow many times the maze generator algorithm should be run\n" +
             "    WIDTH:\t\tThe width of the maze\n" +
             "    HEIGHT:\t\tThe height of the maze\n" +
@@ -252,4 +524,17 @@ public class MultiGenerateCommand extends AbstractCliCommand {
             "    OUTPUT:\t\tHow to output the maze"
     );
   }
+
+  /**
+   * Factory of tasks generating and outputting a single maze.
+   */
+  protected interface MazeTaskFactory {
+    /**
+     * Creates a task generating and outputting the maze with index {@code mazeIndex}.
+     *
+     * @param mazeIndex The index of the maze in the batch.
+     * @return The task.
+     */
+    Callable<Object> createTask(long mazeIndex);
+  }
 }
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.cli.commands;
+
+import de.mtneug.maze_cli.util.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Periodically reports the progress of a batch of mazes. Worker threads only update counters and histograms, which do
+ * not need any lock. The reports are printed by a single thread, so the workers never wait for the output stream.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class ProgressReporter {
+  /**
+   * The number of nanoseconds in a millisecond.
+   */
+  private final static double NANOS_PER_MILLI = 1e6;
+
+  /**
+   * The number of mazes in the batch.
+   */
+  private final long total;
+
+  /**
+   * The format of the reports.
+   */
+  private final Format format;
+
+  /**
+   * The time between two reports in milliseconds.
+   */
+  private final long interval;
+
+  /**
+   * The stream the reports are printed to.
+   */
+  private final PrintStream out;
+
+  /**
+   * The number of successfully generated and output mazes.
+   */
+  private final LongAdder completed = new LongAdder();
+
+  /**
+   * The number of failed mazes.
+   */
+  private final LongAdder failed = new LongAdder();
+
+  /**
+   * The latencies of the maze generations in nanoseconds.
+   */
+  private final LatencyHistogram generateLatencies = new LatencyHistogram();
+
+  /**
+   * The latencies of the maze solvings in nanoseconds.
+   */
+  private final LatencyHistogram solveLatencies = new LatencyHistogram();
+
+  /**
+   * The latencies of the maze outputs in nanoseconds.
+   */
+  private final LatencyHistogram outputLatencies = new LatencyHistogram();
+
+  /**
+   * The number of mazes submitted but not yet done.
+   */
+  private volatile int inFlight;
+
+  /**
+   * The time the reporter was started as given by {@link System#nanoTime()}.
+   */
+  private long startTime;
+
+  /**
+   * The time of the last report as given by {@link System#nanoTime()}.
+   */
+  private long lastReportTime;
+
+  /**
+   * The number of done mazes at the last report.
+   */
+  private long lastDone;
+
+  /**
+   * The thread printing the reports.
+   */
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * The constructor.
+   *
+   * @param total    The number of mazes in the batch.
+   * @param format   The format of the reports.
+   * @param interval The time between two reports in milliseconds.
+   * @param out      The stream the reports are printed to.
+   */
+  public ProgressReporter(long total, Format format, long interval, PrintStream out) {
+    if (total < 0)
+      throw new IllegalArgumentException("total can't be negative");
+    if (format == null)
+      throw new IllegalArgumentException("format can't be null");
+    if (interval < 1)
+      throw new IllegalArgumentException("interval must be positive");
+    if (out == null)
+      throw new IllegalArgumentException("out can't be null");
+
+    this.total = total;
+    this.format = format;
+    this.interval = interval;
+    this.out = out;
+  }
+
+  /**
+   * Starts printing reports periodically.
+   *
+   * @throws IllegalStateException if the reporter has already been started.
+   */
+  public synchronized void start() {
+    if (scheduler != null)
+      throw new IllegalStateException("reporter has already been started");
+
+    startTime = lastReportTime = System.nanoTime();
+
+    scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        final Thread thread = new Thread(runnable, "progress-reporter");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    scheduler.scheduleAtFixedRate(new Runnable() {
+      @Override
+      public void run() {
+        report();
+      }
+    }, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops printing reports periodically and prints a final report.
+   *
+   * @throws InterruptedException if interrupted while waiting for a running report.
+   */
+  public synchronized void stop() throws InterruptedException {
+    if (scheduler == null)
+      return;
+
+    scheduler.shutdown();
+    scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    scheduler = null;
+
+    report();
+  }
+
+  /**
+   * Records a successfully generated and output maze.
+   *
+   * @param generateLatency The latency of the generation in nanoseconds.
+   * @param solveLatency    The latency of the solving in nanoseconds.
+   * @param outputLatency   The latency of the output in nanoseconds.
+   */
+  public void recordCompleted(long generateLatency, long solveLatency, long outputLatency) {
+    generateLatencies.record(generateLatency);
+    solveLatencies.record(solveLatency);
+    outputLatencies.record(outputLatency);
+    completed.increment();
+  }
+
+  /**
+   * Records a failed maze.
+   */
+  public void recordFailed() {
+    failed.increment();
+  }
+
+  /**
+   * Sets the number of mazes submitted but not yet done.
+   *
+   * @param inFlight The number of mazes in flight.
+   */
+  public void setInFlight(int inFlight) {
+    this.inFlight = inFlight;
+  }
+
+  /**
+   * Prints a report. Only called by one thread at a time.
+   */
+  private void report() {
+    final long now = System.nanoTime();
+    final long completed = this.completed.sum();
+    final long failed = this.failed.sum();
+    final long done = completed + failed;
+
+    final double elapsedSeconds = (now - startTime) / 1e9;
+    final double intervalSeconds = (now - lastReportTime) / 1e9;
+    final double rate = intervalSeconds > 0 ? (done - lastDone) / intervalSeconds : 0;
+
+    // the average rate since the start is more stable than the current rate
+    final double eta = done > 0 ? (total - done) * elapsedSeconds / done : -1;
+
+    lastReportTime = now;
+    lastDone = done;
+
+    if (format == Format.JSON)
+      out.println(String.format(Locale.ROOT,
+          "{\"elapsed\":%.3f,\"completed\":%d,\"failed\":%d,\"total\":%d,\"rate\":%.3f,\"inFlight\":%d," +
+              "\"eta\":%.3f,\"generate\":%s,\"solve\":%s,\"output\":%s}",
+          elapsedSeconds, completed, failed, total, rate, inFlight, eta,
+          toJson(generateLatencies), toJson(solveLatencies), toJson(outputLatencies)
+      ));
+    else
+      out.println(String.format(Locale.ROOT,
+          "[%.1fs] %d/%d mazes (%d failed), %.1f mazes/s, %d in flight, ETA %s, " +
+              "p50/p95/p99 ms: generate %s, solve %s, output %s",
+          elapsedSeconds, done, total, failed, rate, inFlight,
+          eta < 0 ? "unknown" : Math.round(eta) + "s",
+          toText(generateLatencies), toText(solveLatencies), toText(outputLatencies)
+      ));
+  }
+
+  /**
+   * Returns the percentiles of {@code histogram} in milliseconds as text.
+   *
+   * @param histogram The histogram.
+   * @return The text.
+   */
+  private static String toText(LatencyHistogram histogram) {
+    return String.format(Locale.ROOT, "%.3f/%.3f/%.3f",
+        histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+        histogram.getValueAtPercentile(95) / NANOS_PER_MILLI,
+        histogram.getValueAtPercentile(99) / NANOS_PER_MILLI
+    );
+  }
+
+  /**
+   * Returns the percentiles of {@code histogram} in milliseconds as JSON object.
+   *
+   * @param histogram The histogram.
+   * @return The JSON object.
+   */
+  private static String toJson(LatencyHistogram histogram) {
+    return String.format(Locale.ROOT, "{\"p50\":%.3f,\"p95\":%.3f,\"p99\":%.3f}",
+        histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+        histogram.getValueAtPercentile(95) / NANOS_PER_MILLI,
+        histogram.getValueAtPercentile(99) / NANOS_PER_MILLI
+    );
+  }
+
+  /**
+   * The formats of the reports.
+   */
+  public enum Format {
+    /**
+     * One human readable line per report.
+     */
+    TEXT("text"),
+
+    /**
+     * One JSON object per line and report. Times are given in seconds, latencies in milliseconds.
+     */
+    JSON("json");
+
+    /**
+     * The name of the format as used on the CLI.
+     */
+    private final String name;
+
+    /**
+     * The constructor.
+     *
+     * @param name The name of the format.
+     */
+    Format(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Returns the format with the given name.
+     *
+     * @param name The name of the format.
+     * @return The format or {@code null} if there is none with that name.
+     */
+    public static Format getFormat(String name) {
+      for (Format format : values())
+        if (format.name.equals(name))
+          return format;
+
+      return null;
+    }
+
+    /**
+     * Returns the name of the format as used on the CLI.
+     *
+     * @return The name.
+     */
+    public String getName() {
+      return name;
+    }
+  }
+}
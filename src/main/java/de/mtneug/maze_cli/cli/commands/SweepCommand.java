@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.cli.commands;
+
+import de.mtneug.maze_cli.annotations.CliCommand;
+import de.mtneug.maze_cli.cli.adapter.algorithms.AbstractMazeAlgorithmCliAdapter;
+import de.mtneug.maze_cli.cli.adapter.outputs.AbstractMazeOutputCliAdapter;
+import de.mtneug.maze_cli.exception.CliArgumentException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CLI command to generate multiple mazes for every combination of widths, heights and algorithm options and output
+ * them somehow. All combinations are run in one JVM on the shared executor of {@link MultiGenerateCommand}, so
+ * statistics of the whole sweep end up in the same CSV file as with single multi-generate runs.
+ * <p/>
+ * Ranges are given as {@code FROM:TO[:STEP]}, both bounds are inclusive. Every algorithm option of the form
+ * {@code --NAME=FROM:TO[:STEP]}, e.g. {@code --m-difficulty=0:100:10}, is swept as well.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@CliCommand(name = "sweep")
+public class SweepCommand extends MultiGenerateCommand {
+  /**
+   * Index of the times argument.
+   */
+  public final static int ARGUMENTS_TIMES_INDEX = 0;
+
+  /**
+   * Index of the widths argument.
+   */
+  public final static int ARGUMENTS_WIDTHS_INDEX = 1;
+
+  /**
+   * Index of the heights argument.
+   */
+  public final static int ARGUMENTS_HEIGHTS_INDEX = 2;
+
+  /**
+   * Index of the algorithm argument.
+   */
+  public final static int ARGUMENTS_ALGORITHM_INDEX = 3;
+
+  /**
+   * Start index of the output argument.
+   */
+  public final static int ARGUMENTS_OUTPUT_START_INDEX = 4;
+
+  /**
+   * Number of arguments needed.
+   */
+  public final static int NUMBER_OF_NEEDED_ARGUMENTS = 5;
+
+  /**
+   * Pattern of a range.
+   */
+  private final static Pattern RANGE_PATTERN = Pattern.compile("(-?\\d+):(-?\\d+)(?::(\\d+))?");
+
+  /**
+   * Pattern of an algorithm option with a range as value.
+   */
+  private final static Pattern RANGE_OPTION_PATTERN = Pattern.compile("(--[^=]+=)" + RANGE_PATTERN.pattern());
+
+  /**
+   * The constructor.
+   *
+   * @param args List of arguments.
+   */
+  public SweepCommand(List<String> args) {
+    super(args);
+  }
+
+  /**
+   * Call the command.
+   *
+   * @return {@code null}
+   * @throws Exception
+   */
+  @Override
+  public Object call() throws Exception {
+    parseOptions();
+
+    if (arguments.size() < NUMBER_OF_NEEDED_ARGUMENTS)
+      throw new CliArgumentException("Not all arguments were specified");
+
+    final int outputIndex = findOutputArgument(ARGUMENTS_OUTPUT_START_INDEX);
+
+    // parse times and ranges
+    final int times = parseTimes(arguments.get(ARGUMENTS_TIMES_INDEX));
+    final int[] widths = parseRange(arguments.get(ARGUMENTS_WIDTHS_INDEX), "widths");
+    final int[] heights = parseRange(arguments.get(ARGUMENTS_HEIGHTS_INDEX), "heights");
+
+    // find adapter
+    final AbstractMazeAlgorithmCliAdapter mazeAlgorithmAdapter = getMazeAlgorithmAdapter(
+        arguments.get(ARGUMENTS_ALGORITHM_INDEX));
+    final AbstractMazeOutputCliAdapter mazeOutputAdapter = getMazeOutputAdapter(arguments.get(outputIndex));
+
+    // separate arguments for generator and output
+    final List<String> mazeAlgorithmArgs = arguments.subList(ARGUMENTS_ALGORITHM_INDEX + 1, outputIndex);
+    final List<String> mazeOutputArgs = new ArrayList<>(arguments.subList(outputIndex + 1, arguments.size()));
+
+    // one task per combination, algorithm options vary slowest
+    final List<MazeTaskFactory> taskFactories = new ArrayList<>();
+
+    for (List<String> algorithmArgs : expandAlgorithmArgs(mazeAlgorithmArgs))
+      for (int width : widths)
+        for (int height : heights)
+          taskFactories.add(createTaskFactory(
+              mazeAlgorithmAdapter, algorithmArgs, new Object[]{width, height}, mazeOutputAdapter, mazeOutputArgs
+          ));
+
+    runTasks(repeat(taskFactories, times), taskFactories.size() * (long) times);
+    printSummary();
+
+    return null;
+  }
+
+  /**
+   * Returns the algorithm arguments of every combination of swept options.
+   *
+   * @param mazeAlgorithmArgs The algorithm arguments possibly containing ranges.
+   * @return List of algorithm arguments without ranges.
+   */
+  private List<List<String>> expandAlgorithmArgs(List<String> mazeAlgorithmArgs) {
+    List<List<String>> combinations = new ArrayList<>();
+    combinations.add(new ArrayList<String>());
+
+    for (String argument : mazeAlgorithmArgs) {
+      final Matcher matcher = RANGE_OPTION_PATTERN.matcher(argument);
+
+      if (!matcher.matches()) {
+        for (List<String> combination : combinations)
+          combination.add(argument);
+
+        continue;
+      }
+
+      final String prefix = matcher.group(1);
+      final int[] values = parseRange(argument.substring(prefix.length()), prefix);
+      final List<List<String>> expanded = new ArrayList<>(combinations.size() * values.length);
+
+      for (List<String> combination : combinations)
+        for (int value : values) {
+          final List<String> newCombination = new ArrayList<>(combination);
+          newCombination.add(prefix + value);
+          expanded.add(newCombination);
+        }
+
+      combinations = expanded;
+    }
+
+    return combinations;
+  }
+
+  /**
+   * Parses a range argument. A single value is a range containing only this value.
+   *
+   * @param rangeStr The range argument.
+   * @param name     The name of the argument used in error messages.
+   * @return The values of the range in ascending order.
+   */
+  private int[] parseRange(String rangeStr, String name) {
+    final Matcher matcher = RANGE_PATTERN.matcher(rangeStr);
+    final int from;
+    final int to;
+    final int step;
+
+    try {
+      if (matcher.matches()) {
+        from = Integer.parseInt(matcher.group(1));
+        to = Integer.parseInt(matcher.group(2));
+        step = matcher.group(3) == null ? 1 : Integer.parseInt(matcher.group(3));
+      } else {
+        from = to = Integer.parseInt(rangeStr);
+        step = 1;
+      }
+    } catch (NumberFormatException e) {
+      throw new CliArgumentException(name + " must be specified in this form: FROM:TO[:STEP]");
+    }
+
+    if (from > to)
+      throw new CliArgumentException(name + " must not start after its end");
+
+    if (step < 1)
+      throw new CliArgumentException(name + " must have a positive step");
+
+    final int[] values = new int[(int) (((long) to - from) / step) + 1];
+
+    for (int i = 0; i < values.length; i++)
+      values[i] = from + i * step;
+
+    return values;
+  }
+
+  /**
+   * Prints how to use this command.
+   */
+  @Override
+  public void printUsage() {
+    System.out.println(
+        "Usage maze sweep [--in-flight=N] [--report-interval=S] [--report-format=FORMAT] TIMES WIDTHS HEIGHTS " +
+            "ALGO [ALGO-ARGS...] OUTPUT [OUTPUT-ARGS...]\n" +
+            "\n" +
+            "    N:\t\t\tMaximum number of mazes in flight (default: 2 * number of processors)\n" +
+            "    S:\t\t\tSeconds between two progress reports (default: 1)\n" +
+            "    FORMAT:\t\tFormat of the progress reports, text or json (default: text)\n" +
+            "    TIMES:\t\tHow many times the maze generator algorithm should be run per combination\n" +
+            "    WIDTHS:\t\tThe widths of the mazes as FROM:TO[:STEP]\n" +
+            "    HEIGHTS:\t\tThe heights of the mazes as FROM:TO[:STEP]\n" +
+            "    ALGO:\t\tThe algorithm to use, options like --m-difficulty=FROM:TO[:STEP] are swept\n" +
+            "    OUTPUT:\t\tHow to output the maze"
+    );
+  }
+}
@@ -160,8 +160,8 @@ public class MazePanel extends JPanel {
    */
   private void drawCellSurface(Graphics2D g2, Cell cell) {
     g2.fill(new Rectangle2D.Float(
-        getXWallThickness() / 2 + cell.getPosition().x * getXWallLength(),
-        getYWallThickness() / 2 + cell.getPosition().y * getYWallLength(),
+        getXWallThickness() / 2 + cell.getX() * getXWallLength(),
+        getYWallThickness() / 2 + cell.getY() * getYWallLength(),
         getXWallLength(),
         getYWallLength()
     ));
@@ -178,37 +178,37 @@ public class MazePanel extends JPanel {
 
     if (!cell.canGoTo(Direction.TOP))
       g2.draw(new Line2D.Float(
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength(),
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength() + getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength()
+          getXWallThickness() / 2 + cell.getX() * getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength(),
+          getXWallThickness() / 2 + cell.getX() * getXWallLength() + getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength()
       ));
 
     if (!cell.canGoTo(Direction.BOTTOM))
       g2.draw(new Line2D.Float(
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength() + getYWallLength(),
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength() + getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength() + getYWallLength()
+          getXWallThickness() / 2 + cell.getX() * getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength() + getYWallLength(),
+          getXWallThickness() / 2 + cell.getX() * getXWallLength() + getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength() + getYWallLength()
       ));
 
     g2.setStroke(new BasicStroke(getXWallThickness()));
 
     if (!cell.canGoTo(Direction.RIGHT)) {
       g2.draw(new Line2D.Float(
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength() + getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength(),
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength() + getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength() + getYWallLength()
+          getXWallThickness() / 2 + cell.getX() * getXWallLength() + getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength(),
+          getXWallThickness() / 2 + cell.getX() * getXWallLength() + getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength() + getYWallLength()
       ));
     }
 
     if (!cell.canGoTo(Direction.LEFT))
       g2.draw(new Line2D.Float(
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength(),
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength() + getYWallLength()
+          getXWallThickness() / 2 + cell.getX() * getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength(),
+          getXWallThickness() / 2 + cell.getX() * getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength() + getYWallLength()
       ));
   }
 
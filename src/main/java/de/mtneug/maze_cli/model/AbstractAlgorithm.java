@@ -4,6 +4,8 @@
 
 package de.mtneug.maze_cli.model;
 
+import de.mtneug.maze_cli.util.ThreadResources;
+
 import java.util.concurrent.Callable;
 
 import static de.mtneug.maze_cli.model.AlgorithmState.*;
@@ -12,6 +14,9 @@ import static de.mtneug.maze_cli.model.AlgorithmState.*;
  * Base class for all algorithm implementations. To create implement an algorithm, one first has to instantiate the
  * initial {@link #output} object in the constructor. The code for the algorithm itself goes into {@link #running()},
  * which will be called from {@link #call()}.
+ * <p/>
+ * While running, the wall time, the CPU time and the bytes allocated by the calling thread are measured. They are
+ * available in CSV format through {@link #getTimingStatistics()}.
  *
  * @param <T> The type of the returned object.
  * @author Matthias Neugebauer
@@ -29,6 +34,21 @@ public abstract class AbstractAlgorithm<T> implements Callable<T>, Nameable, Csv
    */
   protected T output;
 
+  /**
+   * The wall time of {@link #running()} in nanoseconds.
+   */
+  private long wallTime = 0;
+
+  /**
+   * The CPU time of {@link #running()} in nanoseconds or {@link ThreadResources#UNSUPPORTED}.
+   */
+  private long cpuTime = 0;
+
+  /**
+   * The bytes allocated in {@link #running()} or {@link ThreadResources#UNSUPPORTED}.
+   */
+  private long allocatedBytes = 0;
+
   /**
    * The constructor.
    */
@@ -44,9 +64,17 @@ public abstract class AbstractAlgorithm<T> implements Callable<T>, Nameable, Csv
   @Override
   public T call() throws Exception {
     if (state != FINISHED) {
+      final long wallStart = System.nanoTime();
+      final long cpuStart = ThreadResources.getCpuTime();
+      final long allocatedStart = ThreadResources.getAllocatedBytes();
+
       state = RUNNING;
       running();
       state = FINISHED;
+
+      wallTime = System.nanoTime() - wallStart;
+      cpuTime = ThreadResources.difference(cpuStart, ThreadResources.getCpuTime());
+      allocatedBytes = ThreadResources.difference(allocatedStart, ThreadResources.getAllocatedBytes());
     }
 
     return output;
@@ -77,6 +105,33 @@ public abstract class AbstractAlgorithm<T> implements Callable<T>, Nameable, Csv
     return output;
   }
 
+  /**
+   * Returns the wall time of the algorithm.
+   *
+   * @return The wall time in nanoseconds.
+   */
+  public long getWallTime() {
+    return wallTime;
+  }
+
+  /**
+   * Returns the CPU time of the algorithm.
+   *
+   * @return The CPU time in nanoseconds or {@link ThreadResources#UNSUPPORTED}.
+   */
+  public long getCpuTime() {
+    return cpuTime;
+  }
+
+  /**
+   * Returns the bytes allocated by the algorithm.
+   *
+   * @return The allocated bytes or {@link ThreadResources#UNSUPPORTED}.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
   /**
    * Returns statistics about this object in a CSV formatted string.
    *
@@ -86,4 +141,24 @@ public abstract class AbstractAlgorithm<T> implements Callable<T>, Nameable, Csv
   public String getStatistics() {
     return getName();
   }
+
+  /**
+   * Returns the wall time, the CPU time and the allocated bytes of the algorithm in a CSV formatted string.
+   * Algorithms measuring phases can append their timings.
+   *
+   * @return A CSV formatted string.
+   */
+  public String getTimingStatistics() {
+    return wallTime + "," + cpuTime + "," + allocatedBytes;
+  }
+
+  /**
+   * Returns statistics with a varying number or length of columns, e.g. distributions, in a CSV formatted string. They
+   * are written at the end of a line, so the other columns keep their position.
+   *
+   * @return A CSV formatted string or the empty string if there are none.
+   */
+  public String getTrailingStatistics() {
+    return "";
+  }
 }
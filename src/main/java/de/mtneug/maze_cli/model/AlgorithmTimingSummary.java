@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.model;
+
+import de.mtneug.maze_cli.util.ThreadResources;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Summary of the timings of many runs of algorithms. Runs can be added concurrently without locking.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class AlgorithmTimingSummary {
+  /**
+   * The name of the summarized phase, e.g. "generation".
+   */
+  private final String name;
+
+  /**
+   * Number of added runs.
+   */
+  private final LongAdder count = new LongAdder();
+
+  /**
+   * Summed up wall time in nanoseconds.
+   */
+  private final LongAdder wallTime = new LongAdder();
+
+  /**
+   * Largest wall time in nanoseconds.
+   */
+  private final LongAccumulator maxWallTime = new LongAccumulator(new LongBinaryOperator() {
+    @Override
+    public long applyAsLong(long left, long right) {
+      return Math.max(left, right);
+    }
+  }, 0);
+
+  /**
+   * Number of runs with measured CPU time.
+   */
+  private final LongAdder cpuTimeCount = new LongAdder();
+
+  /**
+   * Summed up CPU time in nanoseconds.
+   */
+  private final LongAdder cpuTime = new LongAdder();
+
+  /**
+   * Number of runs with measured allocations.
+   */
+  private final LongAdder allocatedBytesCount = new LongAdder();
+
+  /**
+   * Summed up allocated bytes.
+   */
+  private final LongAdder allocatedBytes = new LongAdder();
+
+  /**
+   * The constructor.
+   *
+   * @param name The name of the summarized phase, e.g. "generation".
+   */
+  public AlgorithmTimingSummary(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Adds the timings of a finished algorithm.
+   *
+   * @param algorithm The algorithm.
+   */
+  public void add(AbstractAlgorithm<?> algorithm) {
+    count.increment();
+    wallTime.add(algorithm.getWallTime());
+    maxWallTime.accumulate(algorithm.getWallTime());
+
+    if (algorithm.getCpuTime() != ThreadResources.UNSUPPORTED) {
+      cpuTimeCount.increment();
+      cpuTime.add(algorithm.getCpuTime());
+    }
+
+    if (algorithm.getAllocatedBytes() != ThreadResources.UNSUPPORTED) {
+      allocatedBytesCount.increment();
+      allocatedBytes.add(algorithm.getAllocatedBytes());
+    }
+  }
+
+  /**
+   * Returns the number of added runs.
+   *
+   * @return The number of added runs.
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Returns a human readable summary in one line.
+   *
+   * @return The summary.
+   */
+  @Override
+  public String toString() {
+    final long runs = count.sum();
+
+    if (runs == 0)
+      return name + ": no runs";
+
+    return String.format(Locale.ROOT, "%s: %d runs, wall %.3f ms mean (%.3f ms max, %.1f ms total), cpu %s, alloc %s",
+        name, runs,
+        wallTime.sum() / 1e6 / runs, maxWallTime.get() / 1e6, wallTime.sum() / 1e6,
+        mean(cpuTime, cpuTimeCount, 1e6, "ms"),
+        mean(allocatedBytes, allocatedBytesCount, 1024, "KiB"));
+  }
+
+  /**
+   * Formats the mean of a measurement.
+   *
+   * @param sum     The summed up measurement.
+   * @param counter The number of measurements.
+   * @param divisor The divisor to convert into {@code unit}.
+   * @param unit    The unit.
+   * @return The formatted mean or "n/a" if nothing was measured.
+   */
+  private static String mean(LongAdder sum, LongAdder counter, double divisor, String unit) {
+    final long n = counter.sum();
+
+    if (n == 0)
+      return "n/a";
+
+    return String.format(Locale.ROOT, "%.3f %s mean", sum.sum() / divisor / n, unit);
+  }
+}
@@ -6,8 +6,12 @@ package de.mtneug.maze_cli.model;
 
 import java.util.*;
 
+import static de.mtneug.maze_cli.model.Direction.*;
+
 /**
- * Model of a maze cell.
+ * Model of a maze cell. A cell is only a lightweight view on a position of its maze. Links are stored in the
+ * {@link MazeGrid} of the maze and neighbors are derived from the position, so cells can be created on demand and two
+ * cells are equal if they are at the same position of the same maze.
  *
  * @author Matthias Neugebauer
  * @version 1.0
@@ -16,45 +20,39 @@ import java.util.*;
  */
 public class Cell {
   /**
-   * The position of this cell in the overall maze.
+   * The order in which neighbors are reported by {@link #getNeighbors()}.
    */
-  private final Point position;
+  private final static Direction[] NEIGHBOR_ORDER = {TOP, BOTTOM, LEFT, RIGHT};
 
   /**
-   * Set of the directions one can go to from this cell.
+   * The maze this cell belongs to.
    */
-  private final Set<Direction> links = new LinkedHashSet<>();
+  private final Maze maze;
 
   /**
-   * Set of labels given to this cell.
+   * The x position of this cell in the overall maze.
    */
-  private final Set<String> labels = new LinkedHashSet<>();
+  private final int x;
 
   /**
-   * Map of neighbor cells and the direction they lie in.
-   */
-  private final Map<Direction, Cell> neighbors = new LinkedHashMap<>();
-
-  /**
-   * The constructor.
-   *
-   * @param x The x position of this cell.
-   * @param y The y position of this cell.
+   * The y position of this cell in the overall maze.
    */
-  public Cell(int x, int y) {
-    this(new Point(x, y));
-  }
+  private final int y;
 
   /**
    * The constructor.
    *
-   * @param position The position of this cell.
+   * @param maze The maze this cell belongs to.
+   * @param x    The x position of this cell.
+   * @param y    The y position of this cell.
    */
-  public Cell(Point position) {
-    if (position == null)
-      throw new IllegalArgumentException("cells need a position");
+  public Cell(Maze maze, int x, int y) {
+    if (maze == null)
+      throw new IllegalArgumentException("cells need a maze");
 
-    this.position = position;
+    this.maze = maze;
+    this.x = x;
+    this.y = y;
   }
 
   /**
@@ -65,15 +63,7 @@ public class Cell {
    * @throws IllegalArgumentException if no neighbor cell in that direction exists.
    */
   public boolean link(Direction direction) {
-    if (canGoTo(direction)) return false;
-
-    if (!hasNeighborPositioned(direction))
-      throw new IllegalArgumentException("Has no neighbor cell in that direction");
-
-    links.add(direction);
-    getNeighborPositioned(direction).link(direction.getOpposite());
-
-    return true;
+    return maze.getGrid().link(x, y, direction);
   }
 
   /**
@@ -83,12 +73,7 @@ public class Cell {
    * @return {@code true} if there was a link before, {@code false} otherwise.
    */
   public boolean unlink(Direction direction) {
-    if (cannotGoTo(direction)) return false;
-
-    links.remove(direction);
-    getNeighborPositioned(direction).unlink(direction.getOpposite());
-
-    return true;
+    return maze.getGrid().unlink(x, y, direction);
   }
 
   /**
@@ -98,7 +83,7 @@ public class Cell {
    * @return {@code true} if there exists a connection, {@code false} otherwise.
    */
   public boolean canGoTo(Direction direction) {
-    return links.contains(direction);
+    return maze.getGrid().isLinked(x, y, direction);
   }
 
   /**
@@ -119,39 +104,54 @@ public class Cell {
    * @return The position of this cell.
    */
   public Point getPosition() {
-    return position;
+    return new Point(x, y);
   }
 
   /**
-   * Returns the set of labels given to this cell.
+   * Returns the x position of this cell in the overall maze.
    *
-   * @return The set of labels.
+   * @return The x position.
    */
-  public Set<String> getLabels() {
-    return labels;
+  public int getX() {
+    return x;
   }
 
   /**
-   * Returns the neighbor cell in the given {@code direction}.
+   * Returns the y position of this cell in the overall maze.
    *
-   * @param direction The direction of the cell.
-   * @return The neighbor cell.
+   * @return The y position.
    */
-  public Cell getNeighborPositioned(Direction direction) {
-    return neighbors.get(direction);
+  public int getY() {
+    return y;
   }
 
   /**
-   * Sets the neighbor cell in the given {@code direction}.
+   * Returns the ID of this cell, i.e. its row wise index in the overall maze.
+   *
+   * @return The ID of this cell.
+   * @see MazeGrid
+   */
+  public int getId() {
+    return maze.getGrid().getCellId(x, y);
+  }
+
+  /**
+   * Returns the set of labels given to this cell.
+   *
+   * @return The set of labels.
+   */
+  public Set<String> getLabels() {
+    return maze.getLabels(getId());
+  }
+
+  /**
+   * Returns the neighbor cell in the given {@code direction}.
    *
    * @param direction The direction of the cell.
-   * @param cell      The new neighbor cell. If it is {@code null} the neighbor is not set.
-   * @return {@code true} if the new neighbor cell was set, {@code false} otherwise.
+   * @return The neighbor cell or {@code null} if there is none.
    */
-  public boolean setNeighborPositioned(Direction direction, Cell cell) {
-    if (cell == null) return false;
-    neighbors.put(direction, cell);
-    return true;
+  public Cell getNeighborPositioned(Direction direction) {
+    return maze.getCell(x + direction.getDeltaX(), y + direction.getDeltaY());
   }
 
   /**
@@ -161,7 +161,7 @@ public class Cell {
    * @return {@code true} if there is a neighbor cell, {@code false} otherwise.
    */
   public boolean hasNeighborPositioned(Direction direction) {
-    return neighbors.containsKey(direction);
+    return maze.getGrid().isValidPosition(x + direction.getDeltaX(), y + direction.getDeltaY());
   }
 
   /**
@@ -170,6 +170,12 @@ public class Cell {
    * @return The map of directions to neighbor cells.
    */
   public Map<Direction, Cell> getNeighbors() {
+    final Map<Direction, Cell> neighbors = new LinkedHashMap<>();
+
+    for (Direction direction : NEIGHBOR_ORDER)
+      if (hasNeighborPositioned(direction))
+        neighbors.put(direction, getNeighborPositioned(direction));
+
     return Collections.unmodifiableMap(neighbors);
   }
 
@@ -179,6 +185,12 @@ public class Cell {
    * @return The set of all directions to linked cells.
    */
   public Set<Direction> getLinkedDirections() {
+    final Set<Direction> links = EnumSet.noneOf(Direction.class);
+
+    for (Direction direction : Direction.values())
+      if (canGoTo(direction))
+        links.add(direction);
+
     return Collections.unmodifiableSet(links);
   }
 
@@ -189,7 +201,7 @@ public class Cell {
    * @return {@code true} if {@code cell} is a neighbor, {@code false} otherwise.
    */
   public boolean isNeighborOf(Cell cell) {
-    return getNeighbors().containsValue(cell);
+    return cell != null && maze == cell.maze && Math.abs(x - cell.x) + Math.abs(y - cell.y) == 1;
   }
 
   /**
@@ -215,10 +227,7 @@ public class Cell {
 
     Cell cell = (Cell) o;
 
-    if (position != null ? !position.equals(cell.position) : cell.position != null) return false;
-    if (links != null ? !links.equals(cell.links) : cell.links != null) return false;
-    if (labels != null ? !labels.equals(cell.labels) : cell.labels != null) return false;
-    return !(neighbors != null ? !neighbors.equals(cell.neighbors) : cell.neighbors != null);
+    return maze == cell.maze && x == cell.x && y == cell.y;
   }
 
   /**
@@ -228,7 +237,9 @@ public class Cell {
    */
   @Override
   public int hashCode() {
-    return position.hashCode();
+    int result = x;
+    result = 31 * result + y;
+    return result;
   }
 
   /**
@@ -238,6 +249,6 @@ public class Cell {
    */
   @Override
   public String toString() {
-    return "Cell" + position.toString();
+    return "Cell(" + x + ", " + y + ')';
   }
 }
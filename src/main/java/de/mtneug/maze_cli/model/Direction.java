@@ -12,10 +12,10 @@ package de.mtneug.maze_cli.model;
  * @since 1.0
  */
 public enum Direction {
-  TOP,
-  RIGHT,
-  BOTTOM,
-  LEFT;
+  TOP(0, -1),
+  RIGHT(1, 0),
+  BOTTOM(0, 1),
+  LEFT(-1, 0);
 
   static {
     TOP.opposite = BOTTOM;
@@ -29,6 +29,27 @@ public enum Direction {
    */
   private Direction opposite;
 
+  /**
+   * The change of the x position when going into this direction.
+   */
+  private final int deltaX;
+
+  /**
+   * The change of the y position when going into this direction.
+   */
+  private final int deltaY;
+
+  /**
+   * The constructor.
+   *
+   * @param deltaX The change of the x position when going into this direction.
+   * @param deltaY The change of the y position when going into this direction.
+   */
+  Direction(int deltaX, int deltaY) {
+    this.deltaX = deltaX;
+    this.deltaY = deltaY;
+  }
+
   /**
    * Returns the opposite direction of this one. Solution found here:
    * http://stackoverflow.com/questions/18883646/java-enum-methods
@@ -38,4 +59,22 @@ public enum Direction {
   public Direction getOpposite() {
     return opposite;
   }
+
+  /**
+   * Returns the change of the x position when going into this direction.
+   *
+   * @return The change of the x position.
+   */
+  public int getDeltaX() {
+    return deltaX;
+  }
+
+  /**
+   * Returns the change of the y position when going into this direction.
+   *
+   * @return The change of the y position.
+   */
+  public int getDeltaY() {
+    return deltaY;
+  }
 }
@@ -6,15 +6,11 @@ package de.mtneug.maze_cli.model;
 
 import de.mtneug.maze_cli.algorithms.AbstractMazeAlgorithm;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.List;
-
-import static de.mtneug.maze_cli.model.Direction.*;
+import java.util.*;
 
 /**
- * Model of a maze. This is essentially a linked graph of cells.
+ * Model of a maze. This is essentially a linked graph of cells. The links are stored compactly in a {@link MazeGrid},
+ * while {@link Cell} objects are only views on it, which are created on demand.
  *
  * @author Matthias Neugebauer
  * @version 1.0
@@ -32,9 +28,14 @@ public class Maze implements Iterable<Cell>, CsvStatisticable {
   private final int height;
 
   /**
-   * The 2d grid storing the cells.
+   * The grid storing the links between the cells.
+   */
+  private final MazeGrid grid;
+
+  /**
+   * Labels given to cells, mapped by the ID of the cell. Only cells with labels have an entry.
    */
-  private final Cell[][] grid;
+  private final Map<Integer, Set<String>> labels = new HashMap<>();
 
   /**
    * The start point of the maze.
@@ -66,31 +67,7 @@ public class Maze implements Iterable<Cell>, CsvStatisticable {
     this.width = width;
     this.height = height;
 
-    grid = new Cell[width][height];
-    createCells();
-    setCellRelations();
-  }
-
-  /**
-   * Creates new cells for each grid point.
-   */
-  private void createCells() {
-    for (int x = 0; x < width; x++)
-      for (int y = 0; y < height; y++)
-        grid[x][y] = new Cell(x, y);
-  }
-
-  /**
-   * Links the new cells to each other.
-   */
-  private void setCellRelations() {
-    for (int x = 0; x < width; x++)
-      for (int y = 0; y < height; y++) {
-        grid[x][y].setNeighborPositioned(TOP, getCell(x, y - 1));
-        grid[x][y].setNeighborPositioned(BOTTOM, getCell(x, y + 1));
-        grid[x][y].setNeighborPositioned(LEFT, getCell(x - 1, y));
-        grid[x][y].setNeighborPositioned(RIGHT, getCell(x + 1, y));
-      }
+    grid = new MazeGrid(width, height);
   }
 
   /**
@@ -221,7 +198,21 @@ public class Maze implements Iterable<Cell>, CsvStatisticable {
         height <= y || y < 0)
       return null;
 
-    return grid[x][y];
+    return new Cell(this, x, y);
+  }
+
+  /**
+   * Returns the cell with the given ID.
+   *
+   * @param cellId The ID of the cell.
+   * @return The cell or {@code null} if the ID is not valid.
+   * @see MazeGrid
+   */
+  public Cell getCell(int cellId) {
+    if (cellId < 0 || cellId >= grid.getCellCount())
+      return null;
+
+    return new Cell(this, grid.getCellX(cellId), grid.getCellY(cellId));
   }
 
   /**
@@ -230,14 +221,48 @@ public class Maze implements Iterable<Cell>, CsvStatisticable {
    * @return A list of all cells.
    */
   public List<Cell> getCells() {
-    List<Cell> list = new ArrayList<Cell>();
+    List<Cell> list = new ArrayList<Cell>(width * height);
 
     for (int x = 0; x < width; x++)
-      list.addAll(Arrays.asList(grid[x]));
+      for (int y = 0; y < height; y++)
+        list.add(new Cell(this, x, y));
 
     return list;
   }
 
+  /**
+   * Returns the grid storing the links between the cells.
+   *
+   * @return The grid.
+   */
+  public MazeGrid getGrid() {
+    return grid;
+  }
+
+  /**
+   * Returns the set of labels given to the cell with the given ID. The set is created on first access.
+   *
+   * @param cellId The ID of the cell.
+   * @return The set of labels.
+   */
+  Set<String> getLabels(int cellId) {
+    Set<String> cellLabels = labels.get(cellId);
+
+    if (cellLabels == null) {
+      cellLabels = new LinkedHashSet<>();
+      labels.put(cellId, cellLabels);
+    }
+
+    return cellLabels;
+  }
+
+  /**
+   * Removes the labels of all cells.
+   */
+  public void clearLabels() {
+    labels.clear();
+  }
+
   /**
    * Returns an iterator over all cells in this maze.
    *
@@ -264,6 +289,21 @@ public class Maze implements Iterable<Cell>, CsvStatisticable {
         width * height;
   }
 
+  /**
+   * Resets this maze for a new run of {@code mazeAlgorithm} in O(cells). All walls are put up again and the labels as
+   * well as the start and end cell are removed.
+   *
+   * @param mazeAlgorithm The maze generation algorithm which will be used to form this maze.
+   */
+  public void reset(AbstractMazeAlgorithm mazeAlgorithm) {
+    this.mazeAlgorithm = mazeAlgorithm;
+
+    grid.clear();
+    clearLabels();
+    startPoint = null;
+    endPoint = null;
+  }
+
   /**
    * Returns the maze generation algorithm used to create this maze.
    *
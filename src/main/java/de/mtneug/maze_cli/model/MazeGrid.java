@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.model;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Compact storage of the links of a maze. Every cell owns two bits, one for the link to its bottom neighbor (a
+ * {@link Orientation#HORIZONTAL} wall) and one for the link to its right neighbor (a {@link Orientation#VERTICAL}
+ * wall). Links to the top and left are stored by the respective neighbor, so each wall is represented exactly once. A
+ * set bit means there is a passage, so a freshly created grid has all walls up.
+ * <p/>
+ * Cells and walls can be addressed by plain {@code int} IDs, which allows algorithms to run without allocating
+ * {@link Cell}, {@link Point} or {@link Wall} objects. The ID of a cell is {@code y * width + x}, the ID of a wall is
+ * {@code cellId * 2 + orientation}, which is also the index of the bit describing it.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @see Maze
+ * @since 1.1
+ */
+public class MazeGrid {
+  /**
+   * Number of bits stored per cell.
+   */
+  public final static int BITS_PER_CELL = 2;
+
+  /**
+   * All orientations indexed by their ordinal.
+   */
+  private final static Orientation[] ORIENTATIONS = Orientation.values();
+
+  /**
+   * The width of the grid.
+   */
+  private final int width;
+
+  /**
+   * The height of the grid.
+   */
+  private final int height;
+
+  /**
+   * The link bits of all cells stored row wise.
+   */
+  private final long[] bits;
+
+  /**
+   * The constructor.
+   *
+   * @param width  The width of the grid.
+   * @param height The height of the grid.
+   */
+  public MazeGrid(int width, int height) {
+    if (width < 1 || height < 1)
+      throw new IllegalArgumentException("Dimension must be at least 1x1");
+
+    if ((long) width * height * BITS_PER_CELL > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("Dimension is too large");
+
+    this.width = width;
+    this.height = height;
+    this.bits = new long[(width * height * BITS_PER_CELL + Long.SIZE - 1) / Long.SIZE];
+  }
+
+  /**
+   * Checks if a link exists between the cell at the given position and its neighbor in the given {@code direction}.
+   *
+   * @param x         The x position of the cell.
+   * @param y         The y position of the cell.
+   * @param direction The direction of the other cell.
+   * @return {@code true} if there exists a connection, {@code false} otherwise or if there is no neighbor.
+   */
+  public boolean isLinked(int x, int y, Direction direction) {
+    final int wallId = getWallId(x, y, direction);
+    return wallId >= 0 && isLinked(wallId);
+  }
+
+  /**
+   * Checks if the wall with the given ID is a passage.
+   *
+   * @param wallId The ID of the wall.
+   * @return {@code true} if there exists a connection, {@code false} otherwise.
+   */
+  public boolean isLinked(int wallId) {
+    return (bits[wallId >>> 6] & (1L << wallId)) != 0;
+  }
+
+  /**
+   * Checks if a link exists between the given cell and its neighbor in the given {@code direction}.
+   *
+   * @param cellId    The ID of the cell.
+   * @param direction The direction of the other cell.
+   * @return {@code true} if there exists a connection, {@code false} otherwise or if there is no neighbor.
+   */
+  public boolean canGoTo(int cellId, Direction direction) {
+    final int wallId = getWallId(cellId, direction);
+    return wallId >= 0 && isLinked(wallId);
+  }
+
+  /**
+   * Returns the number of links of the given cell.
+   *
+   * @param cellId The ID of the cell.
+   * @return The number of links.
+   */
+  public int getLinkCount(int cellId) {
+    return Integer.bitCount(getLinks(cellId));
+  }
+
+  /**
+   * Returns the links of the given cell as bit mask. Bit {@code direction.ordinal()} is set if the cell is linked to its
+   * neighbor in that direction.
+   *
+   * @param cellId The ID of the cell.
+   * @return The bit mask of links.
+   */
+  public int getLinks(int cellId) {
+    final int x = cellId % width;
+    int links = 0;
+
+    if (cellId >= width && isLinked(getWallId(cellId - width, Orientation.HORIZONTAL)))
+      links |= 1 << Direction.TOP.ordinal();
+    if (x < width - 1 && isLinked(getWallId(cellId, Orientation.VERTICAL)))
+      links |= 1 << Direction.RIGHT.ordinal();
+    if (cellId < (height - 1) * width && isLinked(getWallId(cellId, Orientation.HORIZONTAL)))
+      links |= 1 << Direction.BOTTOM.ordinal();
+    if (x > 0 && isLinked(getWallId(cellId - 1, Orientation.VERTICAL)))
+      links |= 1 << Direction.LEFT.ordinal();
+
+    return links;
+  }
+
+  /**
+   * Links the cell at the given position to its neighbor in the given {@code direction}.
+   *
+   * @param x         The x position of the cell.
+   * @param y         The y position of the cell.
+   * @param direction The direction of the cell to link to.
+   * @return {@code true} if the link is new, {@code false} otherwise.
+   * @throws IllegalArgumentException if no neighbor cell in that direction exists.
+   */
+  public boolean link(int x, int y, Direction direction) {
+    final int wallId = getWallId(x, y, direction);
+
+    if (wallId < 0)
+      throw new IllegalArgumentException("Has no neighbor cell in that direction");
+
+    return link(wallId);
+  }
+
+  /**
+   * Turns the wall with the given ID into a passage.
+   *
+   * @param wallId The ID of the wall.
+   * @return {@code true} if the link is new, {@code false} otherwise.
+   */
+  public boolean link(int wallId) {
+    final int word = wallId >>> 6;
+    final long mask = 1L << wallId;
+    final boolean isNew = (bits[word] & mask) == 0;
+    bits[word] |= mask;
+    return isNew;
+  }
+
+  /**
+   * Unlinks the cell at the given position from its neighbor in the given {@code direction}.
+   *
+   * @param x         The x position of the cell.
+   * @param y         The y position of the cell.
+   * @param direction The direction of the cell to unlink from.
+   * @return {@code true} if there was a link before, {@code false} otherwise.
+   */
+  public boolean unlink(int x, int y, Direction direction) {
+    final int wallId = getWallId(x, y, direction);
+
+    if (wallId < 0)
+      return false;
+
+    final int word = wallId >>> 6;
+    final long mask = 1L << wallId;
+    final boolean wasLinked = (bits[word] & mask) != 0;
+    bits[word] &= ~mask;
+    return wasLinked;
+  }
+
+  /**
+   * Removes all links, i.e. puts up every wall again.
+   */
+  public void clear() {
+    Arrays.fill(bits, 0L);
+  }
+
+  /**
+   * Copies the link bits into {@code buffer}, starting with the word at index {@code offset}, until the buffer is full or
+   * all words have been copied. Bit {@code i % 64} of word {@code i / 64} describes the wall with ID {@code i}.
+   *
+   * @param offset The index of the first word to copy.
+   * @param buffer The buffer to copy to.
+   * @return The number of copied words.
+   */
+  public int getLinkWords(int offset, LongBuffer buffer) {
+    final int count = Math.min(buffer.remaining(), bits.length - offset);
+    buffer.put(bits, offset, count);
+    return count;
+  }
+
+  /**
+   * Replaces the link bits with the words of {@code buffer}, starting with the word at index {@code offset}, until the
+   * buffer is empty or all words have been replaced. The layout is the same as of {@link #getLinkWords(int,
+   * LongBuffer)}.
+   *
+   * @param offset The index of the first word to replace.
+   * @param buffer The buffer to copy from.
+   * @return The number of replaced words.
+   */
+  public int setLinkWords(int offset, LongBuffer buffer) {
+    final int count = Math.min(buffer.remaining(), bits.length - offset);
+    buffer.get(bits, offset, count);
+    return count;
+  }
+
+  /**
+   * Returns the number of 64 bit words the link bits are stored in.
+   *
+   * @return The number of words.
+   */
+  public int getLinkWordCount() {
+    return bits.length;
+  }
+
+  /**
+   * Checks whether the given position lies within the grid.
+   *
+   * @param x The x position.
+   * @param y The y position.
+   * @return {@code true} if the position is valid, {@code false} otherwise.
+   */
+  public boolean isValidPosition(int x, int y) {
+    return 0 <= x && x < width && 0 <= y && y < height;
+  }
+
+  /**
+   * Returns the number of cells, which is also the upper bound (exclusive) of cell IDs.
+   *
+   * @return The number of cells.
+   */
+  public int getCellCount() {
+    return width * height;
+  }
+
+  /**
+   * Returns the upper bound (exclusive) of wall IDs.
+   *
+   * @return The upper bound of wall IDs.
+   */
+  public int getWallIdBound() {
+    return width * height * BITS_PER_CELL;
+  }
+
+  /**
+   * Returns the ID of the cell at the given position.
+   *
+   * @param x The x position of the cell.
+   * @param y The y position of the cell.
+   * @return The cell ID.
+   */
+  public int getCellId(int x, int y) {
+    return y * width + x;
+  }
+
+  /**
+   * Returns the x position of the cell with the given ID.
+   *
+   * @param cellId The ID of the cell.
+   * @return The x position.
+   */
+  public int getCellX(int cellId) {
+    return cellId % width;
+  }
+
+  /**
+   * Returns the y position of the cell with the given ID.
+   *
+   * @param cellId The ID of the cell.
+   * @return The y position.
+   */
+  public int getCellY(int cellId) {
+    return cellId / width;
+  }
+
+  /**
+   * Returns the ID of the neighbor of the given cell in the given {@code direction}.
+   *
+   * @param cellId    The ID of the cell.
+   * @param direction The direction of the neighbor.
+   * @return The ID of the neighbor or {@code -1} if there is none.
+   */
+  public int getNeighborId(int cellId, Direction direction) {
+    switch (direction) {
+      case TOP:
+        return cellId >= width ? cellId - width : -1;
+      case RIGHT:
+        return cellId % width < width - 1 ? cellId + 1 : -1;
+      case BOTTOM:
+        return cellId < (height - 1) * width ? cellId + width : -1;
+      default:
+        return cellId % width > 0 ? cellId - 1 : -1;
+    }
+  }
+
+  /**
+   * Returns the ID of the wall between the cell at the given position and its neighbor in the given {@code direction}.
+   *
+   * @param x         The x position of the cell.
+   * @param y         The y position of the cell.
+   * @param direction The direction of the other cell.
+   * @return The wall ID or {@code -1} if one of the cells lies outside of the grid.
+   */
+  public int getWallId(int x, int y, Direction direction) {
+    if (!isValidPosition(x, y))
+      return -1;
+
+    return getWallId(getCellId(x, y), direction);
+  }
+
+  /**
+   * Returns the ID of the wall between the given cell and its neighbor in the given {@code direction}. Top and left
+   * walls are mapped to the bottom and right wall of the respective neighbor.
+   *
+   * @param cellId    The ID of the cell.
+   * @param direction The direction of the other cell.
+   * @return The wall ID or {@code -1} if there is no neighbor.
+   */
+  public int getWallId(int cellId, Direction direction) {
+    final int neighborId = getNeighborId(cellId, direction);
+
+    if (neighborId < 0)
+      return -1;
+
+    switch (direction) {
+      case TOP:
+        return getWallId(neighborId, Orientation.HORIZONTAL);
+      case RIGHT:
+        return getWallId(cellId, Orientation.VERTICAL);
+      case BOTTOM:
+        return getWallId(cellId, Orientation.HORIZONTAL);
+      default:
+        return getWallId(neighborId, Orientation.VERTICAL);
+    }
+  }
+
+  /**
+   * Returns the ID of the wall with the given {@code orientation} owned by the given cell. The horizontal wall lies
+   * below the cell, the vertical one to its right.
+   *
+   * @param cellId      The ID of the owning cell.
+   * @param orientation The orientation of the wall.
+   * @return The wall ID.
+   */
+  public int getWallId(int cellId, Orientation orientation) {
+    return cellId * BITS_PER_CELL + orientation.ordinal();
+  }
+
+  /**
+   * Returns the ID of the cell owning the wall with the given ID, i.e. the cell above or left of it.
+   *
+   * @param wallId The ID of the wall.
+   * @return The ID of the owning cell.
+   */
+  public int getWallCellId(int wallId) {
+    return wallId / BITS_PER_CELL;
+  }
+
+  /**
+   * Returns the ID of the cell on the other side of the wall with the given ID, i.e. the cell below or right of it.
+   *
+   * @param wallId The ID of the wall.
+   * @return The ID of the other cell.
+   */
+  public int getWallNeighborId(int wallId) {
+    return getWallOrientation(wallId) == Orientation.VERTICAL
+        ? getWallCellId(wallId) + 1
+        : getWallCellId(wallId) + width;
+  }
+
+  /**
+   * Returns the orientation of the wall with the given ID.
+   *
+   * @param wallId The ID of the wall.
+   * @return The orientation of the wall.
+   */
+  public Orientation getWallOrientation(int wallId) {
+    return ORIENTATIONS[wallId % BITS_PER_CELL];
+  }
+
+  /**
+   * The width of the grid.
+   *
+   * @return The width.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * The height of the grid.
+   *
+   * @return The height.
+   */
+  public int getHeight() {
+    return height;
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.model;
+
+import de.mtneug.maze_cli.exception.CannotGoInThatDirectionException;
+
+/**
+ * Compact storage of the places of a whole maze, i.e. the cells with all directions one can go from there. For every
+ * cell and direction it stores how many times the direction has been seen/followed in a flat {@code byte} array
+ * indexed by {@code cellId * 4 + direction}, so queries neither box values nor sort them.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class PlaceMarks {
+  /**
+   * Number of marks stored per cell.
+   */
+  public final static int MARKS_PER_CELL = 4;
+
+  /**
+   * All directions. Cached, since {@link Direction#values()} creates a new array on every call.
+   */
+  private final static Direction[] DIRECTIONS = Direction.values();
+
+  /**
+   * The grid of the maze.
+   */
+  private final MazeGrid grid;
+
+  /**
+   * The seen values of all cells and directions.
+   */
+  private final byte[] marks;
+
+  /**
+   * Whether a cell has been added as place.
+   */
+  private final boolean[] places;
+
+  /**
+   * Number of added places.
+   */
+  private int placeCount = 0;
+
+  /**
+   * The constructor.
+   *
+   * @param grid The grid of the maze.
+   */
+  public PlaceMarks(MazeGrid grid) {
+    if (grid == null)
+      throw new IllegalArgumentException("grid can't be null");
+
+    this.grid = grid;
+    this.marks = new byte[grid.getCellCount() * MARKS_PER_CELL];
+    this.places = new boolean[grid.getCellCount()];
+  }
+
+  /**
+   * Adds the cell with the given ID as place.
+   *
+   * @param cellId The ID of the cell.
+   * @return {@code true} if the place is new, {@code false} otherwise.
+   */
+  public boolean addPlace(int cellId) {
+    if (places[cellId])
+      return false;
+
+    places[cellId] = true;
+    placeCount++;
+    return true;
+  }
+
+  /**
+   * Whether the cell with the given ID has been added as place.
+   *
+   * @param cellId The ID of the cell.
+   * @return {@code true} if the cell is a place, {@code false} otherwise.
+   */
+  public boolean isPlace(int cellId) {
+    return places[cellId];
+  }
+
+  /**
+   * Returns the number of added places.
+   *
+   * @return The number of places.
+   */
+  public int getPlaceCount() {
+    return placeCount;
+  }
+
+  /**
+   * Increment the seen value of the given {@code direction} of a place.
+   *
+   * @param cellId    The ID of the cell the place is based of.
+   * @param direction The direction.
+   * @return The new value of the direction.
+   * @throws CannotGoInThatDirectionException if the direction is not followable.
+   */
+  public int addSeen(int cellId, Direction direction) {
+    if (!grid.canGoTo(cellId, direction))
+      throw new CannotGoInThatDirectionException();
+
+    return ++marks[cellId * MARKS_PER_CELL + direction.ordinal()];
+  }
+
+  /**
+   * Returns the seen value of the given {@code direction} of a place.
+   *
+   * @param cellId    The ID of the cell the place is based of.
+   * @param direction The direction.
+   * @return The seen value of the given {@code direction}.
+   */
+  public int getSeenValueOf(int cellId, Direction direction) {
+    return marks[cellId * MARKS_PER_CELL + direction.ordinal()];
+  }
+
+  /**
+   * Returns the lowest seen value of all followable directions of a place.
+   *
+   * @param cellId The ID of the cell the place is based of.
+   * @return The lowest seen value or {@link Integer#MAX_VALUE} if no direction is followable.
+   */
+  public int getLowestSeenValue(int cellId) {
+    final int links = grid.getLinks(cellId);
+    int lowest = Integer.MAX_VALUE;
+
+    for (int i = 0; i < MARKS_PER_CELL; i++)
+      if ((links & 1 << i) != 0)
+        lowest = Math.min(lowest, marks[cellId * MARKS_PER_CELL + i]);
+
+    return lowest;
+  }
+
+  /**
+   * Collects the followable directions of a place, which have been seen the least. The directions are stored in the
+   * order of {@link Direction#values()} at the beginning of {@code result}.
+   *
+   * @param cellId The ID of the cell the place is based of.
+   * @param result The array to store the directions in. Must be able to hold all directions.
+   * @return The number of stored directions.
+   */
+  public int getLeastSeenDirections(int cellId, Direction[] result) {
+    final int links = grid.getLinks(cellId);
+    int lowest = Integer.MAX_VALUE;
+    int count = 0;
+
+    for (int i = 0; i < MARKS_PER_CELL; i++) {
+      if ((links & 1 << i) == 0)
+        continue;
+
+      final int value = marks[cellId * MARKS_PER_CELL + i];
+
+      if (value < lowest) {
+        lowest = value;
+        count = 0;
+      }
+
+      if (value == lowest)
+        result[count++] = DIRECTIONS[i];
+    }
+
+    return count;
+  }
+}
@@ -33,10 +33,10 @@ public class SimpleCalculatedPath extends AbstractCalculatedPath implements Draw
   @Override
   public void calculatePath() {
     Graphics.bresenham(
-        startCell.getPosition().x,
-        startCell.getPosition().y,
-        endCell.getPosition().x,
-        endCell.getPosition().y,
+        startCell.getX(),
+        startCell.getY(),
+        endCell.getX(),
+        endCell.getY(),
         0,
         this
     );
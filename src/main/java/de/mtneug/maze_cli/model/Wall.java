@@ -51,4 +51,27 @@ public class Wall {
 
     return cell.equals(wall.cell) && direction == wall.direction;
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns the hash code value for this object.
+   *
+   * @return The hash code value for this object.
+   */
+  @Override
+  public int hashCode() {
+    int result = cell.hashCode();
+    result = 31 * result + direction.ordinal();
+    return result;
+  }
+
+  /**
+   * Returns the ID of this wall in the grid of the maze of its cell.
+   *
+   * @param grid The grid of the maze.
+   * @return The wall ID or {@code -1} if there is no cell on the other side.
+   * @see MazeGrid
+   */
+  public int getId(MazeGrid grid) {
+    return grid.getWallId(cell.getX(), cell.getY(), direction);
+  }
+}
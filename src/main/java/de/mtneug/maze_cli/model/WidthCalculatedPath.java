@@ -64,10 +64,10 @@ public class WidthCalculatedPath extends SimpleCalculatedPath {
   @Override
   public void calculatePath() {
     Graphics.bresenham(
-        startCell.getPosition().x,
-        startCell.getPosition().y,
-        endCell.getPosition().x,
-        endCell.getPosition().y,
+        startCell.getX(),
+        startCell.getY(),
+        endCell.getX(),
+        endCell.getY(),
         width,
         this
     );
@@ -6,14 +6,21 @@ package de.mtneug.maze_cli.outputs;
 
 import de.mtneug.maze_cli.model.Cell;
 import de.mtneug.maze_cli.model.Direction;
+import de.mtneug.maze_cli.model.MazeGrid;
 import de.mtneug.maze_cli.model.MazeSolutions;
 
 import java.awt.*;
 import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 
 /**
  * Base class for all graphical maze outputs.
+ * <p/>
+ * By default the walls are drawn by scanning every row and column of wall positions once and merging consecutive walls
+ * into a single segment. The segments of a row or column form a single path and each stroke is only created once, so a
+ * vector output contains one path element per row and column instead of up to four lines per cell. See
+ * {@link #setMergingWalls(boolean)}.
  *
  * @author Matthias Neugebauer
  * @version 1.0
@@ -75,6 +82,11 @@ public abstract class AbstractGraphicOutput extends AbstractMazeOutput {
    */
   private boolean markingFirstSolution = true;
 
+  /**
+   * Whether to merge consecutive walls into long segments or to draw the walls of every cell on their own.
+   */
+  private boolean mergingWalls = true;
+
   /**
    * The constructor.
    *
@@ -114,8 +126,110 @@ public abstract class AbstractGraphicOutput extends AbstractMazeOutput {
 
     // draw cell walls
     g2.setColor(wallColor);
-    for (Cell cell : mazeSolutions.getMaze())
-      drawCellWalls(g2, cell);
+
+    if (mergingWalls)
+      drawMergedWalls(g2);
+    else
+      for (Cell cell : mazeSolutions.getMaze())
+        drawCellWalls(g2, cell);
+  }
+
+  /**
+   * Draws all walls of the maze. Consecutive walls are merged into one segment, which spans the same area as the walls
+   * drawn by {@link #drawCellWalls(Graphics2D, Cell)}. Every wall is drawn once, although it belongs to two cells. The
+   * segments are drawn as one path per row and column, since a single path for the whole maze is stroked slowly by
+   * raster backends.
+   *
+   * @param g2 The graphic object.
+   */
+  private void drawMergedWalls(final Graphics2D g2) {
+    final Path2D.Float walls = new Path2D.Float();
+
+    traceMergedWalls(new WallTracer() {
+      @Override
+      public void beginWalls(float thickness) {
+        g2.setStroke(new BasicStroke(thickness));
+      }
+
+      @Override
+      public void addWall(float x0, float y0, float x1, float y1) {
+        walls.moveTo(x0, y0);
+        walls.lineTo(x1, y1);
+      }
+
+      @Override
+      public void endLine() {
+        g2.draw(walls);
+        walls.reset();
+      }
+
+      @Override
+      public void endWalls() {
+      }
+    });
+  }
+
+  /**
+   * Scans every row and column of wall positions once and passes consecutive walls as one segment to
+   * {@code tracer}. First all horizontal walls are traced, then all vertical ones. The segments are lines, which must be
+   * drawn with the given thickness and square caps.
+   *
+   * @param tracer The receiver of the segments.
+   */
+  protected void traceMergedWalls(WallTracer tracer) {
+    final MazeGrid grid = mazeSolutions.getMaze().getGrid();
+    final int mazeWidth = grid.getWidth();
+    final int mazeHeight = grid.getHeight();
+    final float xWallLength = getXWallLength();
+    final float yWallLength = getYWallLength();
+    final float xWallThickness = getXWallThickness();
+    final float yWallThickness = getYWallThickness();
+
+    // horizontal walls lie above row y, the outer ones above the first and below the last row
+    tracer.beginWalls(yWallThickness);
+
+    for (int y = 0; y <= mazeHeight; y++) {
+      final float lineY = yWallThickness / 2 + y * yWallLength;
+      int runStart = -1;
+
+      for (int x = 0; x <= mazeWidth; x++) {
+        final boolean isWall = x < mazeWidth && !grid.isLinked(x, y, Direction.TOP);
+
+        if (isWall && runStart < 0)
+          runStart = x;
+        else if (!isWall && runStart >= 0) {
+          tracer.addWall(runStart * xWallLength, lineY, xWallThickness + x * xWallLength, lineY);
+          runStart = -1;
+        }
+      }
+
+      tracer.endLine();
+    }
+
+    tracer.endWalls();
+
+    // vertical walls lie left of column x, the outer ones left of the first and right of the last column
+    tracer.beginWalls(xWallThickness);
+
+    for (int x = 0; x <= mazeWidth; x++) {
+      final float lineX = xWallThickness / 2 + x * xWallLength;
+      int runStart = -1;
+
+      for (int y = 0; y <= mazeHeight; y++) {
+        final boolean isWall = y < mazeHeight && !grid.isLinked(x, y, Direction.LEFT);
+
+        if (isWall && runStart < 0)
+          runStart = y;
+        else if (!isWall && runStart >= 0) {
+          tracer.addWall(lineX, runStart * yWallLength, lineX, yWallThickness + y * yWallLength);
+          runStart = -1;
+        }
+      }
+
+      tracer.endLine();
+    }
+
+    tracer.endWalls();
   }
 
   /**
@@ -125,12 +239,22 @@ public abstract class AbstractGraphicOutput extends AbstractMazeOutput {
    * @param cell The cell to draw the background for.
    */
   private void drawCellSurface(Graphics2D g2, Cell cell) {
-    g2.fill(new Rectangle2D.Float(
-        getXWallThickness() / 2 + cell.getPosition().x * getXWallLength(),
-        getYWallThickness() / 2 + cell.getPosition().y * getYWallLength(),
+    g2.fill(getCellSurface(cell));
+  }
+
+  /**
+   * Returns the area of the background of the given {@code cell}.
+   *
+   * @param cell The cell.
+   * @return The area of the background.
+   */
+  protected Rectangle2D.Float getCellSurface(Cell cell) {
+    return new Rectangle2D.Float(
+        getXWallThickness() / 2 + cell.getX() * getXWallLength(),
+        getYWallThickness() / 2 + cell.getY() * getYWallLength(),
         getXWallLength(),
         getYWallLength()
-    ));
+    );
   }
 
   /**
@@ -144,37 +268,37 @@ public abstract class AbstractGraphicOutput extends AbstractMazeOutput {
 
     if (!cell.canGoTo(Direction.TOP))
       g2.draw(new Line2D.Float(
-          cell.getPosition().x * getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength(),
-          getXWallThickness() + cell.getPosition().x * getXWallLength() + getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength()
+          cell.getX() * getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength(),
+          getXWallThickness() + cell.getX() * getXWallLength() + getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength()
       ));
 
     if (!cell.canGoTo(Direction.BOTTOM))
       g2.draw(new Line2D.Float(
-          cell.getPosition().x * getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength() + getYWallLength(),
-          getXWallThickness() + cell.getPosition().x * getXWallLength() + getXWallLength(),
-          getYWallThickness() / 2 + cell.getPosition().y * getYWallLength() + getYWallLength()
+          cell.getX() * getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength() + getYWallLength(),
+          getXWallThickness() + cell.getX() * getXWallLength() + getXWallLength(),
+          getYWallThickness() / 2 + cell.getY() * getYWallLength() + getYWallLength()
       ));
 
     g2.setStroke(new BasicStroke(getXWallThickness()));
 
     if (!cell.canGoTo(Direction.RIGHT)) {
       g2.draw(new Line2D.Float(
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength() + getXWallLength(),
-          cell.getPosition().y * getYWallLength(),
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength() + getXWallLength(),
-          getYWallThickness() + cell.getPosition().y * getYWallLength() + getYWallLength()
+          getXWallThickness() / 2 + cell.getX() * getXWallLength() + getXWallLength(),
+          cell.getY() * getYWallLength(),
+          getXWallThickness() / 2 + cell.getX() * getXWallLength() + getXWallLength(),
+          getYWallThickness() + cell.getY() * getYWallLength() + getYWallLength()
       ));
     }
 
     if (!cell.canGoTo(Direction.LEFT))
       g2.draw(new Line2D.Float(
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength(),
-          cell.getPosition().y * getYWallLength(),
-          getXWallThickness() / 2 + cell.getPosition().x * getXWallLength(),
-          getYWallThickness() + cell.getPosition().y * getYWallLength() + getYWallLength()
+          getXWallThickness() / 2 + cell.getX() * getXWallLength(),
+          cell.getY() * getYWallLength(),
+          getXWallThickness() / 2 + cell.getX() * getXWallLength(),
+          getYWallThickness() + cell.getY() * getYWallLength() + getYWallLength()
       ));
   }
 
@@ -376,6 +500,24 @@ public abstract class AbstractGraphicOutput extends AbstractMazeOutput {
     this.markingFirstSolution = markingFirstSolution;
   }
 
+  /**
+   * Returns whether consecutive walls are merged into long segments.
+   *
+   * @return {@code true} if the walls are merged, {@code false} if the walls of every cell are drawn on their own.
+   */
+  public boolean isMergingWalls() {
+    return mergingWalls;
+  }
+
+  /**
+   * Sets whether consecutive walls are merged into long segments.
+   *
+   * @param mergingWalls Whether to merge the walls.
+   */
+  public void setMergingWalls(boolean mergingWalls) {
+    this.mergingWalls = mergingWalls;
+  }
+
   /**
    * Returns the width of the graphic.
    *
@@ -393,4 +535,36 @@ public abstract class AbstractGraphicOutput extends AbstractMazeOutput {
   public float getHeight() {
     return height;
   }
+
+  /**
+   * Receiver of the wall segments traced by {@link #traceMergedWalls(WallTracer)}.
+   */
+  protected interface WallTracer {
+    /**
+     * Called before the walls of one orientation are traced.
+     *
+     * @param thickness The thickness of the following walls.
+     */
+    void beginWalls(float thickness);
+
+    /**
+     * Called for every segment of consecutive walls.
+     *
+     * @param x0 The x position of the start point.
+     * @param y0 The y position of the start point.
+     * @param x1 The x position of the end point.
+     * @param y1 The y position of the end point.
+     */
+    void addWall(float x0, float y0, float x1, float y1);
+
+    /**
+     * Called after every row or column of wall positions, even if it contains no walls.
+     */
+    void endLine();
+
+    /**
+     * Called after the walls of one orientation are traced.
+     */
+    void endWalls();
+  }
 }
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.outputs;
+
+import de.mtneug.maze_cli.algorithms.AbstractMazeAlgorithm;
+import de.mtneug.maze_cli.algorithms.BinaryMazeReader;
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.model.MazeGrid;
+import de.mtneug.maze_cli.model.MazeSolutions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Maze output, which writes the maze in a compact binary format. The file can be loaded again with
+ * {@link BinaryMazeReader}, so large mazes can be solved or rendered again without generating them again.
+ * <p/>
+ * All numbers are stored big endian. The file starts with a header:
+ * <ol>
+ * <li>{@link #MAGIC}</li>
+ * <li>the version as {@code short}, currently {@link #VERSION}</li>
+ * <li>flags as {@code short}: {@link #FLAG_SEED} if the seed is known</li>
+ * <li>width and height as {@code int}</li>
+ * <li>the IDs of the start and end cell as {@code int}, {@code -1} if there is none</li>
+ * <li>the length of the algorithm name in bytes as {@code int}</li>
+ * <li>the length of the name of the random number generator type in bytes as {@code int}</li>
+ * <li>the lengths of the statistics and of the timing statistics of the algorithm in bytes as {@code int}</li>
+ * <li>the seed of the random number generator of the algorithm as {@code long}</li>
+ * <li>the name of the algorithm, the name of the random number generator type as used by {@code --rng}, the statistics
+ * and the timing statistics of the algorithm in UTF-8, padded with zeros to a multiple of 8 bytes</li>
+ * </ol>
+ * The header is followed by the walls of the grid with 2 bits per cell as {@code long} words in the layout of
+ * {@link MazeGrid#getLinkWords(int, java.nio.LongBuffer)}. Since the header is padded, the words are aligned.
+ * <p/>
+ * The statistics are the CSV columns of {@link AbstractMazeAlgorithm#getStatistics()} and
+ * {@link AbstractMazeAlgorithm#getTimingStatistics()} at the time the maze was generated. Statistics of loaded mazes
+ * thus have the same columns as statistics of generated mazes.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class BinaryMazeOutput extends AbstractMazeOutput {
+  /**
+   * The usual file extension.
+   */
+  public final static String FILE_EXTENSION = ".maze";
+
+  /**
+   * The bytes every file starts with. The first byte is not ASCII, so the file is not mistaken for text.
+   */
+  public final static byte[] MAGIC = {(byte) 0x89, 'M', 'A', 'Z', 'E', '\r', '\n', 0x1a};
+
+  /**
+   * The version of the format.
+   */
+  public final static short VERSION = 1;
+
+  /**
+   * Flag set if the seed is known.
+   */
+  public final static short FLAG_SEED = 1;
+
+  /**
+   * Position of the version.
+   */
+  public final static int VERSION_OFFSET = 8;
+
+  /**
+   * Position of the flags.
+   */
+  public final static int FLAGS_OFFSET = 10;
+
+  /**
+   * Position of the width.
+   */
+  public final static int WIDTH_OFFSET = 12;
+
+  /**
+   * Position of the height.
+   */
+  public final static int HEIGHT_OFFSET = 16;
+
+  /**
+   * Position of the ID of the start cell.
+   */
+  public final static int START_CELL_OFFSET = 20;
+
+  /**
+   * Position of the ID of the end cell.
+   */
+  public final static int END_CELL_OFFSET = 24;
+
+  /**
+   * Position of the length of the algorithm name.
+   */
+  public final static int NAME_LENGTH_OFFSET = 28;
+
+  /**
+   * Position of the length of the name of the random number generator type.
+   */
+  public final static int RNG_NAME_LENGTH_OFFSET = 32;
+
+  /**
+   * Position of the length of the algorithm statistics.
+   */
+  public final static int STATISTICS_LENGTH_OFFSET = 36;
+
+  /**
+   * Position of the length of the algorithm timing statistics.
+   */
+  public final static int TIMING_STATISTICS_LENGTH_OFFSET = 40;
+
+  /**
+   * Position of the seed.
+   */
+  public final static int SEED_OFFSET = 44;
+
+  /**
+   * Position of the algorithm name.
+   */
+  public final static int NAME_OFFSET = 52;
+
+  /**
+   * The maximum length of the algorithm name and of the name of the random number generator type in bytes.
+   */
+  public final static int MAX_NAME_LENGTH = 255;
+
+  /**
+   * The maximum length of the algorithm statistics and of the timing statistics in bytes each.
+   */
+  public final static int MAX_STATISTICS_LENGTH = 4096;
+
+  /**
+   * Size of the buffer between the maze and the file in bytes. A multiple of 8 larger than any header.
+   */
+  private final static int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Path to the file the maze is written to.
+   */
+  private final String path;
+
+  /**
+   * The constructor.
+   *
+   * @param mazeSolutions The maze and solutions to output.
+   * @param path          Path to the file the maze is written to.
+   * @throws IllegalArgumentException if {@code path} is {@code null}.
+   */
+  public BinaryMazeOutput(MazeSolutions mazeSolutions, String path) {
+    super(mazeSolutions);
+
+    if (path == null)
+      throw new IllegalArgumentException("path can't be null");
+
+    this.path = path;
+  }
+
+  /**
+   * Outputs the maze.
+   *
+   * @return {@code null}
+   * @throws Exception
+   */
+  @Override
+  public Object call() throws Exception {
+    final Maze maze = mazeSolutions.getMaze();
+    final MazeGrid grid = maze.getGrid();
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    try (FileChannel channel = FileChannel.open(Paths.get(path), CREATE, TRUNCATE_EXISTING, WRITE)) {
+      putHeader(maze, buffer);
+
+      // fill the rest of the buffer with words, write it and repeat until all words are written
+      for (int offset = 0; offset < grid.getLinkWordCount(); ) {
+        final int count = grid.getLinkWords(offset, buffer.asLongBuffer());
+        buffer.position(buffer.position() + count * Long.BYTES);
+        offset += count;
+
+        buffer.flip();
+        while (buffer.hasRemaining())
+          channel.write(buffer);
+        buffer.clear();
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Puts the header of the file into {@code buffer}.
+   *
+   * @param maze   The maze.
+   * @param buffer The buffer.
+   */
+  private void putHeader(Maze maze, ByteBuffer buffer) {
+    final AbstractMazeAlgorithm mazeAlgorithm = maze.getMazeAlgorithm();
+    final Long seed = mazeAlgorithm == null ? null : mazeAlgorithm.getSeed();
+    final byte[] name = (mazeAlgorithm == null ? "" : mazeAlgorithm.getName()).getBytes(StandardCharsets.UTF_8);
+    final byte[] rngName = (mazeAlgorithm == null || mazeAlgorithm.getRandomNumberGeneratorType() == null
+        ? "" : mazeAlgorithm.getRandomNumberGeneratorType().getName()).getBytes(StandardCharsets.UTF_8);
+    final byte[] statistics = (mazeAlgorithm == null ? "" : mazeAlgorithm.getStatistics())
+        .getBytes(StandardCharsets.UTF_8);
+    final byte[] timingStatistics = (mazeAlgorithm == null ? "" : mazeAlgorithm.getTimingStatistics())
+        .getBytes(StandardCharsets.UTF_8);
+
+    if (name.length > MAX_NAME_LENGTH || rngName.length > MAX_NAME_LENGTH)
+      throw new IllegalArgumentException("The name of the algorithm or random number generator is too long");
+    if (statistics.length > MAX_STATISTICS_LENGTH || timingStatistics.length > MAX_STATISTICS_LENGTH)
+      throw new IllegalArgumentException("The statistics of the algorithm are too long");
+
+    buffer.put(MAGIC);
+    buffer.putShort(VERSION);
+    buffer.putShort(seed == null ? 0 : FLAG_SEED);
+    buffer.putInt(maze.getWidth());
+    buffer.putInt(maze.getHeight());
+    buffer.putInt(maze.hasStartCell() ? maze.getStartCell().getId() : -1);
+    buffer.putInt(maze.hasEndCell() ? maze.getEndCell().getId() : -1);
+    buffer.putInt(name.length);
+    buffer.putInt(rngName.length);
+    buffer.putInt(statistics.length);
+    buffer.putInt(timingStatistics.length);
+    buffer.putLong(seed == null ? 0 : seed);
+    buffer.put(name);
+    buffer.put(rngName);
+    buffer.put(statistics);
+    buffer.put(timingStatistics);
+    buffer.position(getGridOffset(name.length + rngName.length + statistics.length + timingStatistics.length));
+  }
+
+  /**
+   * Returns the position of the walls of the grid.
+   *
+   * @param textLength The length of the names, statistics and timing statistics in bytes.
+   * @return The position.
+   */
+  public static int getGridOffset(int textLength) {
+    return (NAME_OFFSET + textLength + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+  }
+
+  /**
+   * Returns the path to the file the maze is written to.
+   *
+   * @return The path.
+   */
+  public String getPath() {
+    return path;
+  }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.outputs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service appending lines to files without blocking the callers. Every file has its own lock-free queue, to which any
+ * number of threads hand their lines, and its own writer thread, which appends them in batches through a single open
+ * channel. Files are identified by their normalized absolute path, so threads writing to different files do not
+ * contend.
+ * <p/>
+ * This is a singleton. To get an instance use {@link #getInstance()}. All files are closed by a shutdown hook, but
+ * commands should call {@link #closeAll()} when they are done, to be sure every line has been written.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class CsvWriterService {
+  /**
+   * Singleton instance.
+   */
+  private final static CsvWriterService INSTANCE = new CsvWriterService();
+
+  /**
+   * Size of the buffer used to write batches of lines.
+   */
+  public final static int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * The charset of written files.
+   */
+  private final static Charset CHARSET = StandardCharsets.UTF_8;
+
+  /**
+   * The line separator.
+   */
+  private final static String LINE_SEPARATOR = System.getProperty("line.separator");
+
+  /**
+   * Map of normalized paths to file writers.
+   */
+  private final ConcurrentMap<Path, FileAppender> writers = new ConcurrentHashMap<>();
+
+  /**
+   * Private singleton constructor. It registers the shutdown hook.
+   */
+  private CsvWriterService() {
+    Runtime.getRuntime().addShutdownHook(new Thread("csv-writer-shutdown") {
+      @Override
+      public void run() {
+        try {
+          closeAll();
+        } catch (IOException e) {
+          System.err.println(e.getMessage());
+        }
+      }
+    });
+  }
+
+  /**
+   * Get the singleton instance.
+   *
+   * @return The singleton instance of this class.
+   */
+  public static CsvWriterService getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Hands {@code line} to the writer of the file at {@code path}. The line is appended to the file asynchronously.
+   *
+   * @param path The path of the file.
+   * @param line The line to append without line separator.
+   * @throws IOException if the writer of the file has failed before.
+   */
+  public void writeLine(String path, String line) throws IOException {
+    if (path == null || line == null)
+      throw new IllegalArgumentException("path and line can't be null");
+
+    final Path normalizedPath = Paths.get(path).toAbsolutePath().normalize();
+
+    while (true) {
+      FileAppender writer = writers.get(normalizedPath);
+
+      if (writer == null) {
+        final FileAppender newWriter = new FileAppender(normalizedPath);
+        writer = writers.putIfAbsent(normalizedPath, newWriter);
+
+        if (writer == null) {
+          writer = newWriter;
+          writer.start();
+        }
+      }
+
+      if (writer.offer(line))
+        return;
+
+      // the writer has been closed in the meantime
+      writers.remove(normalizedPath, writer);
+    }
+  }
+
+  /**
+   * Waits until every line handed so far has been written. Unlike {@link #closeAll()} the files and writer threads are
+   * kept open.
+   *
+   * @throws IOException if one of the writers failed.
+   */
+  public void flushAll() throws IOException {
+    for (FileAppender writer : writers.values())
+      writer.awaitWritten();
+  }
+
+  /**
+   * Closes all files after every handed line has been written. Writing to a closed file opens it again.
+   *
+   * @throws IOException if one of the writers failed.
+   */
+  public void closeAll() throws IOException {
+    IOException firstException = null;
+
+    for (FileAppender writer : writers.values()) {
+      writers.remove(writer.path, writer);
+
+      try {
+        writer.close();
+      } catch (IOException e) {
+        if (firstException == null)
+          firstException = e;
+      }
+    }
+
+    if (firstException != null)
+      throw firstException;
+  }
+
+  /**
+   * Writer of a single file.
+   */
+  private static class FileAppender implements Runnable {
+    /**
+     * The path of the file.
+     */
+    private final Path path;
+
+    /**
+     * The lines waiting to be written.
+     */
+    private final Queue<String> lines = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of lines handed to this writer.
+     */
+    private final AtomicLong offeredLines = new AtomicLong();
+
+    /**
+     * Number of lines written to the file. Only changed by the writer thread.
+     */
+    private volatile long writtenLines = 0;
+
+    /**
+     * Number of threads currently handing a line to this writer.
+     */
+    private final AtomicInteger pendingOffers = new AtomicInteger();
+
+    /**
+     * The writer thread.
+     */
+    private final Thread thread;
+
+    /**
+     * Whether the writer has been closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Whether the writer thread has finished.
+     */
+    private boolean finished = false;
+
+    /**
+     * The error the writer thread has failed with.
+     */
+    private volatile IOException error;
+
+    /**
+     * The constructor.
+     *
+     * @param path The path of the file.
+     */
+    private FileAppender(Path path) {
+      this.path = path;
+      this.thread = new Thread(this, "csv-writer-" + path.getFileName());
+      this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    private void start() {
+      thread.start();
+    }
+
+    /**
+     * Hands a line to the writer.
+     *
+     * @param line The line.
+     * @return {@code true} if the line will be written, {@code false} if the writer has been closed.
+     * @throws IOException if the writer has failed before.
+     */
+    private boolean offer(String line) throws IOException {
+      pendingOffers.incrementAndGet();
+
+      try {
+        if (error != null)
+          throw error;
+
+        if (closed)
+          return false;
+
+        lines.offer(line);
+        offeredLines.incrementAndGet();
+        return true;
+      } finally {
+        pendingOffers.decrementAndGet();
+        // also wakes up a closing writer, which waits for this offer
+        LockSupport.unpark(thread);
+      }
+    }
+
+    /**
+     * Waits until every line handed so far has been written, without closing the writer.
+     *
+     * @throws IOException if the writer has failed.
+     */
+    private void awaitWritten() throws IOException {
+      final long target = offeredLines.get();
+
+      synchronized (this) {
+        while (writtenLines < target && error == null && !finished) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while flushing " + path, e);
+          }
+        }
+      }
+
+      if (error != null)
+        throw error;
+    }
+
+    /**
+     * Closes the writer and waits until every handed line has been written.
+     *
+     * @throws IOException if the writer has failed.
+     */
+    private void close() throws IOException {
+      closed = true;
+      LockSupport.unpark(thread);
+
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("interrupted while closing " + path, e);
+      }
+
+      if (error != null)
+        throw error;
+    }
+
+    /**
+     * Code of the writer thread. Waits for lines and appends all available ones at once.
+     */
+    @Override
+    public void run() {
+      final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+      try (FileChannel channel = FileChannel.open(path,
+          StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+        while (true) {
+          if (closed && pendingOffers.get() == 0) {
+            // no more lines can arrive
+            writeBatch(channel, buffer);
+            return;
+          }
+
+          if (!writeBatch(channel, buffer))
+            LockSupport.park(this);
+        }
+      } catch (IOException e) {
+        error = e;
+      } finally {
+        // wake up threads waiting in awaitWritten()
+        synchronized (this) {
+          finished = true;
+          notifyAll();
+        }
+      }
+    }
+
+    /**
+     * Writes all lines, which are currently waiting.
+     *
+     * @param channel The channel to write to.
+     * @param buffer  The buffer to collect the lines in.
+     * @return {@code true} if any line has been written, {@code false} otherwise.
+     * @throws IOException if writing failed.
+     */
+    private boolean writeBatch(FileChannel channel, ByteBuffer buffer) throws IOException {
+      long count = 0;
+      String line;
+
+      while ((line = lines.poll()) != null) {
+        final byte[] bytes = (line + LINE_SEPARATOR).getBytes(CHARSET);
+        count++;
+
+        if (bytes.length > buffer.remaining())
+          flush(channel, buffer);
+
+        if (bytes.length > buffer.capacity())
+          writeFully(channel, ByteBuffer.wrap(bytes));
+        else
+          buffer.put(bytes);
+      }
+
+      flush(channel, buffer);
+
+      if (count == 0)
+        return false;
+
+      // wake up threads waiting in awaitWritten()
+      synchronized (this) {
+        writtenLines += count;
+        notifyAll();
+      }
+
+      return true;
+    }
+
+    /**
+     * Writes the content of the buffer and clears it.
+     *
+     * @param channel The channel to write to.
+     * @param buffer  The buffer.
+     * @throws IOException if writing failed.
+     */
+    private void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+      buffer.flip();
+      writeFully(channel, buffer);
+      buffer.clear();
+    }
+
+    /**
+     * Writes all remaining bytes of the buffer.
+     *
+     * @param channel The channel to write to.
+     * @param buffer  The buffer.
+     * @throws IOException if writing failed.
+     */
+    private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+      while (buffer.hasRemaining())
+        channel.write(buffer);
+    }
+  }
+}
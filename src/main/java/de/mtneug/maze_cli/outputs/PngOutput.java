@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.outputs;
+
+import de.mtneug.maze_cli.model.Cell;
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.model.MazeGrid;
+import de.mtneug.maze_cli.model.MazeSolutions;
+import de.mtneug.maze_cli.model.Orientation;
+import de.mtneug.maze_cli.util.IndexedPngEncoder;
+
+import java.awt.*;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Maze output, which writes a PNG file with the maze. The walls and cell backgrounds are rendered straight into rows
+ * of palette indices by cell ID without any Java2D calls and encoded by an {@link IndexedPngEncoder}. Every cell is
+ * {@link #getCellPixels()} pixels wide and high, every wall {@link #getWallPixels()} pixels thick.
+ * <p/>
+ * The maze is rendered row by row like {@link SeminarSerializationOutput} serializes it. All pixel rows within a wall or
+ * cell band of a maze row are identical, so only two pixel rows are rendered per maze row and passed to the encoder
+ * repeatedly. The memory use thus grows with the width of the image only, which allows images with billions of
+ * pixels.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class PngOutput extends AbstractMazeOutput {
+  /**
+   * The default width and height of a cell in pixels.
+   */
+  public final static int DEFAULT_CELL_PIXELS = 8;
+
+  /**
+   * The default thickness of a wall in pixels.
+   */
+  public final static int DEFAULT_WALL_PIXELS = 2;
+
+  /**
+   * The compression level of the image data. Speed matters more than size for thumbnails generated in bulk.
+   */
+  private final static int COMPRESSION_LEVEL = java.util.zip.Deflater.BEST_SPEED;
+
+  /**
+   * Size of the buffer between the encoder and the file in bytes.
+   */
+  private final static int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Palette index of the background.
+   */
+  private final static byte BACKGROUND = 0;
+
+  /**
+   * Palette index of the walls.
+   */
+  private final static byte WALL = 1;
+
+  /**
+   * Palette index of the cells of the first solution.
+   */
+  private final static byte SOLUTION = 2;
+
+  /**
+   * Palette index of the start cell.
+   */
+  private final static byte START = 3;
+
+  /**
+   * Palette index of the end cell.
+   */
+  private final static byte END = 4;
+
+  /**
+   * The palette. The colors are the same as the defaults of {@link AbstractGraphicOutput}.
+   */
+  private final static Color[] PALETTE = {
+      Color.WHITE,
+      new Color(69, 53, 39),
+      new Color(217, 200, 176),
+      new Color(248, 203, 51),
+      new Color(169, 40, 57)
+  };
+
+  /**
+   * The path to use for writing the PNG file.
+   */
+  private final String path;
+
+  /**
+   * The width and height of a cell in pixels.
+   */
+  private final int cellPixels;
+
+  /**
+   * The thickness of a wall in pixels.
+   */
+  private final int wallPixels;
+
+  /**
+   * The ID of the start cell or {@code -1} if there is none.
+   */
+  private final int startCellId;
+
+  /**
+   * The ID of the end cell or {@code -1} if there is none.
+   */
+  private final int endCellId;
+
+  /**
+   * The constructor.
+   *
+   * @param mazeSolutions The maze and solutions to output.
+   * @param path          The path to use for writing the PNG file.
+   * @param cellPixels    The width and height of a cell in pixels.
+   * @param wallPixels    The thickness of a wall in pixels.
+   */
+  public PngOutput(MazeSolutions mazeSolutions, String path, int cellPixels, int wallPixels) {
+    super(mazeSolutions);
+
+    if (path == null)
+      throw new IllegalArgumentException("No path is specified");
+    if (cellPixels < 1 || wallPixels < 1)
+      throw new IllegalArgumentException("cellPixels and wallPixels must be positive");
+
+    this.path = path;
+    this.cellPixels = cellPixels;
+    this.wallPixels = wallPixels;
+
+    final long pitch = cellPixels + wallPixels;
+    final Maze maze = mazeSolutions.getMaze();
+
+    if (maze.getWidth() * pitch + wallPixels > Integer.MAX_VALUE ||
+        maze.getHeight() * pitch + wallPixels > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("The image is too large");
+
+    this.startCellId = maze.hasStartCell() ? maze.getStartCell().getId() : -1;
+    this.endCellId = maze.hasEndCell() ? maze.getEndCell().getId() : -1;
+  }
+
+  /**
+   * Outputs the given maze.
+   *
+   * @return {@code null}
+   * @throws Exception
+   */
+  @Override
+  public Object call() throws Exception {
+    final MazeGrid grid = mazeSolutions.getMaze().getGrid();
+    final BitSet markedCells = getMarkedCells();
+
+    final int imageWidth = getImageWidth();
+    final byte[] wallRow = new byte[imageWidth];
+    final byte[] cellRow = new byte[imageWidth];
+
+    final boolean[] horizontalWalls = new boolean[grid.getWidth()];
+    boolean[] verticalWallsAbove = new boolean[grid.getWidth() + 1];
+    boolean[] verticalWalls = new boolean[grid.getWidth() + 1];
+
+    try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(Paths.get(path)), BUFFER_SIZE);
+         IndexedPngEncoder encoder = new IndexedPngEncoder(file, imageWidth, getImageHeight(), PALETTE,
+             COMPRESSION_LEVEL)) {
+      for (int y = 0; y <= grid.getHeight(); y++) {
+        getHorizontalWalls(grid, y, horizontalWalls);
+        getVerticalWalls(grid, y, verticalWalls);
+
+        // the band of the walls above row y
+        renderWallRow(grid, y, horizontalWalls, verticalWallsAbove, verticalWalls, markedCells, wallRow);
+        for (int i = 0; i < wallPixels; i++)
+          encoder.writeRow(wallRow);
+
+        if (y == grid.getHeight())
+          break;
+
+        // the band of the cells of row y
+        renderCellRow(grid, y, verticalWalls, markedCells, cellRow);
+        for (int i = 0; i < cellPixels; i++)
+          encoder.writeRow(cellRow);
+
+        final boolean[] swap = verticalWallsAbove;
+        verticalWallsAbove = verticalWalls;
+        verticalWalls = swap;
+      }
+
+      encoder.finish();
+    }
+
+    return null;
+  }
+
+  /**
+   * Renders a pixel row of the band of the walls above row {@code y}. An opening between two cells of the first
+   * solution gets the color of the solution, so the solution is drawn as a connected path.
+   *
+   * @param grid               The grid of the maze.
+   * @param y                  The row of cells below the walls. Equals the height of the maze for the bottom walls.
+   * @param horizontalWalls    The walls above the cells of row {@code y}.
+   * @param verticalWallsAbove The walls left of the cells of row {@code y - 1}.
+   * @param verticalWalls      The walls left of the cells of row {@code y}.
+   * @param markedCells        The cells with a background other than the default one.
+   * @param pixels             The row to render into.
+   */
+  private void renderWallRow(MazeGrid grid, int y, boolean[] horizontalWalls, boolean[] verticalWallsAbove,
+                             boolean[] verticalWalls, BitSet markedCells, byte[] pixels) {
+    final int width = grid.getWidth();
+    final int pitch = cellPixels + wallPixels;
+
+    for (int x = 0; x <= width; x++) {
+      final int cornerOffset = x * pitch;
+      final boolean corner = (x > 0 && horizontalWalls[x - 1]) || (x < width && horizontalWalls[x]) ||
+          verticalWallsAbove[x] || verticalWalls[x];
+
+      fill(pixels, cornerOffset, wallPixels, corner ? WALL : BACKGROUND);
+
+      if (x == width)
+        break;
+
+      final byte color;
+
+      if (horizontalWalls[x])
+        color = WALL;
+      else {
+        final int cellId = grid.getCellId(x, y);
+        color = markedCells.get(cellId) && markedCells.get(cellId - width) ? SOLUTION : BACKGROUND;
+      }
+
+      fill(pixels, cornerOffset + wallPixels, cellPixels, color);
+    }
+  }
+
+  /**
+   * Renders a pixel row of the band of the cells of row {@code y}, i.e. the vertical walls and the cell backgrounds.
+   *
+   * @param grid          The grid of the maze.
+   * @param y             The row of cells.
+   * @param verticalWalls The walls left of the cells of row {@code y}.
+   * @param markedCells   The cells with a background other than the default one.
+   * @param pixels        The row to render into.
+   */
+  private void renderCellRow(MazeGrid grid, int y, boolean[] verticalWalls, BitSet markedCells, byte[] pixels) {
+    final int width = grid.getWidth();
+    final int pitch = cellPixels + wallPixels;
+
+    for (int x = 0; x <= width; x++) {
+      final int wallOffset = x * pitch;
+      final int cellId = grid.getCellId(x, y);
+      final byte color;
+
+      if (verticalWalls[x])
+        color = WALL;
+      else
+        color = markedCells.get(cellId) && markedCells.get(cellId - 1) ? SOLUTION : BACKGROUND;
+
+      fill(pixels, wallOffset, wallPixels, color);
+
+      if (x == width)
+        break;
+
+      fill(pixels, wallOffset + wallPixels, cellPixels, markedCells.get(cellId) ? getSurface(cellId) : BACKGROUND);
+    }
+  }
+
+  /**
+   * Determines the walls above the cells of row {@code y}. The top and bottom border of the maze are walls.
+   *
+   * @param grid  The grid of the maze.
+   * @param y     The row of cells. Equals the height of the maze for the bottom border.
+   * @param walls The array to store whether there is a wall above the cell at index {@code x}.
+   */
+  private static void getHorizontalWalls(MazeGrid grid, int y, boolean[] walls) {
+    if (y == 0 || y == grid.getHeight()) {
+      Arrays.fill(walls, true);
+      return;
+    }
+
+    final int firstCellId = grid.getCellId(0, y - 1);
+
+    for (int x = 0; x < walls.length; x++)
+      walls[x] = !grid.isLinked(grid.getWallId(firstCellId + x, Orientation.HORIZONTAL));
+  }
+
+  /**
+   * Determines the walls left of the cells of row {@code y}. The left and right border of the maze are walls.
+   *
+   * @param grid  The grid of the maze.
+   * @param y     The row of cells. Equals the height of the maze below the maze, which has no walls.
+   * @param walls The array to store whether there is a wall left of the cell at index {@code x}.
+   */
+  private static void getVerticalWalls(MazeGrid grid, int y, boolean[] walls) {
+    if (y == grid.getHeight()) {
+      Arrays.fill(walls, false);
+      return;
+    }
+
+    final int firstCellId = grid.getCellId(0, y);
+
+    walls[0] = true;
+    for (int x = 1; x < grid.getWidth(); x++)
+      walls[x] = !grid.isLinked(grid.getWallId(firstCellId + x - 1, Orientation.VERTICAL));
+    walls[grid.getWidth()] = true;
+  }
+
+  /**
+   * Sets {@code length} pixels starting at {@code offset} to {@code color}. Cheaper than {@link Arrays#fill(byte[],
+   * int, int, byte)} for the few pixels of a cell or wall.
+   *
+   * @param pixels The buffer.
+   * @param offset The index of the first pixel.
+   * @param length The number of pixels.
+   * @param color  The palette index.
+   */
+  private static void fill(byte[] pixels, int offset, int length, byte color) {
+    for (int i = offset; i < offset + length; i++)
+      pixels[i] = color;
+  }
+
+  /**
+   * Returns the cells with a background other than the default one, i.e. the cells of the first solution and the start
+   * and end cell.
+   *
+   * @return The cells indexed by cell ID.
+   */
+  private BitSet getMarkedCells() {
+    final BitSet markedCells = new BitSet();
+
+    if (mazeSolutions.hasSolution())
+      for (Cell cell : mazeSolutions.getSolutions().get(0).getPathCells())
+        markedCells.set(cell.getId());
+
+    if (startCellId >= 0)
+      markedCells.set(startCellId);
+
+    if (endCellId >= 0)
+      markedCells.set(endCellId);
+
+    return markedCells;
+  }
+
+  /**
+   * Returns the palette index of the background of a marked cell.
+   *
+   * @param cellId The ID of the cell.
+   * @return The palette index.
+   */
+  private byte getSurface(int cellId) {
+    if (cellId == startCellId)
+      return START;
+
+    if (cellId == endCellId)
+      return END;
+
+    return SOLUTION;
+  }
+
+  /**
+   * Returns the width of the image.
+   *
+   * @return The width in pixels.
+   */
+  public int getImageWidth() {
+    return mazeSolutions.getMaze().getWidth() * (cellPixels + wallPixels) + wallPixels;
+  }
+
+  /**
+   * Returns the height of the image.
+   *
+   * @return The height in pixels.
+   */
+  public int getImageHeight() {
+    return mazeSolutions.getMaze().getHeight() * (cellPixels + wallPixels) + wallPixels;
+  }
+
+  /**
+   * Returns the width and height of a cell.
+   *
+   * @return The width and height in pixels.
+   */
+  public int getCellPixels() {
+    return cellPixels;
+  }
+
+  /**
+   * Returns the thickness of a wall.
+   *
+   * @return The thickness in pixels.
+   */
+  public int getWallPixels() {
+    return wallPixels;
+  }
+}
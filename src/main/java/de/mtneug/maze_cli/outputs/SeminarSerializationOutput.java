@@ -141,8 +141,8 @@ public class SeminarSerializationOutput extends AbstractMazeOutput {
    * @return {@code true} if there is an start cell, {@code false} otherwise.
    */
   private boolean isStartCell(Maze maze, int x, int y) {
-    return maze.getStartCell().getPosition().x == x
-        && maze.getStartCell().getPosition().y == y;
+    return maze.getStartCell().getX() == x
+        && maze.getStartCell().getY() == y;
   }
 
   /**
@@ -154,8 +154,8 @@ public class SeminarSerializationOutput extends AbstractMazeOutput {
    * @return {@code true} if there is an end cell, {@code false} otherwise.
    */
   private boolean isEndCell(Maze maze, int x, int y) {
-    return maze.getEndCell().getPosition().x == x
-        && maze.getEndCell().getPosition().y == y;
+    return maze.getEndCell().getX() == x
+        && maze.getEndCell().getY() == y;
   }
 
   /**
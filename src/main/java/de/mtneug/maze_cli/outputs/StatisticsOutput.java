@@ -4,10 +4,9 @@
 
 package de.mtneug.maze_cli.outputs;
 
+import de.mtneug.maze_cli.model.AbstractAlgorithm;
 import de.mtneug.maze_cli.model.MazeSolutions;
-
-import java.io.FileWriter;
-import java.io.PrintWriter;
+import de.mtneug.maze_cli.model.MazeSolverAlgorithm;
 
 /**
  * Maze output, which outputs statistics.
@@ -17,11 +16,6 @@ import java.io.PrintWriter;
  * @since 1.0
  */
 public class StatisticsOutput extends AbstractMazeOutput {
-  /**
-   * A lock object to synchronize multiple threads on.
-   */
-  public final static Object LOCK = new Object();
-
   /**
    * Path to a file where statistics should be written.
    */
@@ -54,15 +48,15 @@ public class StatisticsOutput extends AbstractMazeOutput {
         mazeSolutions.getMaze().getStatistics() + "," +
         mazeSolutions.getMaze().getMazeAlgorithm().getStatistics() + "," +
         mazeSolutions.getStatistics() + "," +
-        mazeSolutions.getMazeSolver().getStatistics();
-
-    // TODO: how to lower the synchronization if write happens to different files?
-    synchronized (LOCK) {
-      try (PrintWriter fileWriter = new PrintWriter(new FileWriter(writeStatisticsPath, true))) {
-        fileWriter.println(csvStatistics);
-        fileWriter.flush();
-      }
-    }
+        mazeSolutions.getMazeSolver().getStatistics() + "," +
+
+        // timings are appended, so the columns above keep their position
+        mazeSolutions.getMaze().getMazeAlgorithm().getTimingStatistics() +
+        getTimingStatistics(mazeSolutions.getMazeSolver()) +
+        getTrailingStatistics(mazeSolutions.getMazeSolver());
+
+    // the line is appended asynchronously without blocking other threads
+    CsvWriterService.getInstance().writeLine(writeStatisticsPath, csvStatistics);
 
     return null;
   }
@@ -88,4 +82,35 @@ public class StatisticsOutput extends AbstractMazeOutput {
 
     this.writeStatisticsPath = writeStatisticsPath;
   }
+
+  /**
+   * Returns the timing statistics of the solver prefixed with a comma or an empty string if the solver does not measure
+   * timings.
+   *
+   * @param mazeSolver The solver.
+   * @return The timing statistics of the solver.
+   */
+  private String getTimingStatistics(MazeSolverAlgorithm mazeSolver) {
+    if (mazeSolver instanceof AbstractAlgorithm)
+      return "," + ((AbstractAlgorithm<?>) mazeSolver).getTimingStatistics();
+
+    return "";
+  }
+
+  /**
+   * Returns the trailing statistics of the solver prefixed with a comma or an empty string if the solver has none.
+   *
+   * @param mazeSolver The solver.
+   * @return The trailing statistics of the solver.
+   */
+  private String getTrailingStatistics(MazeSolverAlgorithm mazeSolver) {
+    if (mazeSolver instanceof AbstractAlgorithm) {
+      final String trailingStatistics = ((AbstractAlgorithm<?>) mazeSolver).getTrailingStatistics();
+
+      if (!trailingStatistics.isEmpty())
+        return "," + trailingStatistics;
+    }
+
+    return "";
+  }
 }
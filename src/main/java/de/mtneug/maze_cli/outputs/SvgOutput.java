@@ -4,24 +4,49 @@
 
 package de.mtneug.maze_cli.outputs;
 
-import de.erichseifert.vectorgraphics2d.SVGGraphics2D;
+import de.mtneug.maze_cli.model.Cell;
 import de.mtneug.maze_cli.model.MazeSolutions;
 
-import java.io.FileOutputStream;
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * Maze output, which writes a SVG file with the maze.
+ * Maze output, which writes a SVG file with the maze. The document is written directly to the file while walking the
+ * maze, so the memory use does not depend on the size of the maze. If the path ends with {@link #SVGZ_EXTENSION}, the
+ * file is compressed with gzip.
+ * <p/>
+ * The walls are always merged into one path per row and column, see {@link #traceMergedWalls(WallTracer)}.
  *
  * @author Matthias Neugebauer
  * @version 1.0
  * @since 1.0
  */
 public class SvgOutput extends AbstractGraphicOutput {
+  /**
+   * The file extension of gzip compressed SVG files.
+   */
+  public final static String SVGZ_EXTENSION = ".svgz";
+
+  /**
+   * Size of the buffer between the writer and the file in bytes.
+   */
+  private final static int BUFFER_SIZE = 64 * 1024;
+
   /**
    * The path to use for writing the SVG file.
    */
   private final String path;
 
+  /**
+   * The writer of the document while it is written.
+   */
+  private Writer writer;
+
   /**
    * The constructor.
    *
@@ -41,16 +66,193 @@ public class SvgOutput extends AbstractGraphicOutput {
    * Outputs the given maze.
    *
    * @return {@code null}
+   * @throws Exception
    */
   @Override
   public Object call() throws Exception {
-    SVGGraphics2D g = new SVGGraphics2D(0, 0, getWidth(), getHeight());
-    paintComponent(g);
-
-    try (FileOutputStream file = new FileOutputStream(path)) {
-      file.write(g.getBytes());
+    // the file is closed, even if the GZIP header can not be written
+    try (OutputStream file = Files.newOutputStream(Paths.get(path));
+         OutputStream stream = path.endsWith(SVGZ_EXTENSION) ? new GZIPOutputStream(file, BUFFER_SIZE) : file;
+         Writer fileWriter = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+      writer = fileWriter;
+      writeDocument();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      writer = null;
     }
 
     return null;
   }
+
+  /**
+   * Writes the whole document. The elements are written in the same order as {@link #paintComponent(Graphics2D)}
+   * draws them.
+   *
+   * @throws IOException
+   */
+  private void writeDocument() throws IOException {
+    writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\" width=\"");
+    writeNumber(getWidth());
+    writer.write("\" height=\"");
+    writeNumber(getHeight());
+    writer.write("\" viewBox=\"0 0 ");
+    writeNumber(getWidth());
+    writer.write(' ');
+    writeNumber(getHeight());
+    writer.write("\">\n");
+
+    // first solution
+    if (mazeSolutions.hasSolution()) {
+      beginGroup("fill", getFirstSolutionSurfaceColor());
+
+      for (Cell cell : mazeSolutions.getSolutions().get(0).getPathCells())
+        writeCellSurface(cell);
+
+      writer.write("</g>\n");
+    }
+
+    // start and end cell backgrounds
+    if (isMarkingStartCell() && mazeSolutions.getMaze().hasStartCell()) {
+      beginGroup("fill", getStartCellSurfaceColor());
+      writeCellSurface(mazeSolutions.getMaze().getStartCell());
+      writer.write("</g>\n");
+    }
+
+    if (isMarkingEndCell() && mazeSolutions.getMaze().hasEndCell()) {
+      beginGroup("fill", getEndCellSurfaceColor());
+      writeCellSurface(mazeSolutions.getMaze().getEndCell());
+      writer.write("</g>\n");
+    }
+
+    // cell walls
+    traceMergedWalls(new WallTracer() {
+      /**
+       * Whether the path element of the current row or column has been started.
+       */
+      private boolean inPath = false;
+
+      @Override
+      public void beginWalls(float thickness) {
+        try {
+          beginGroup("stroke", getWallColor());
+          writer.write("<g fill=\"none\" stroke-linecap=\"square\" stroke-width=\"");
+          writeNumber(thickness);
+          writer.write("\">\n");
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      @Override
+      public void addWall(float x0, float y0, float x1, float y1) {
+        try {
+          writer.write(inPath ? " M" : "<path d=\"M");
+          writeNumber(x0);
+          writer.write(' ');
+          writeNumber(y0);
+
+          if (y0 == y1) {
+            writer.write('H');
+            writeNumber(x1);
+          } else {
+            writer.write('V');
+            writeNumber(y1);
+          }
+
+          inPath = true;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      @Override
+      public void endLine() {
+        if (!inPath)
+          return;
+
+        try {
+          writer.write("\"/>\n");
+          inPath = false;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      @Override
+      public void endWalls() {
+        try {
+          writer.write("</g>\n</g>\n");
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    });
+
+    writer.write("</svg>\n");
+  }
+
+  /**
+   * Starts a group element setting the given color attribute.
+   *
+   * @param attribute The name of the attribute, i.e. {@code fill} or {@code stroke}.
+   * @param color     The color.
+   * @throws IOException
+   */
+  private void beginGroup(String attribute, Color color) throws IOException {
+    writer.write("<g ");
+    writer.write(attribute);
+    writer.write("=\"#");
+    writer.write(String.format("%06x", color.getRGB() & 0xffffff));
+    writer.write("\">\n");
+  }
+
+  /**
+   * Writes the background of the given {@code cell} as rectangle.
+   *
+   * @param cell The cell.
+   * @throws IOException
+   */
+  private void writeCellSurface(Cell cell) throws IOException {
+    final Rectangle2D.Float surface = getCellSurface(cell);
+
+    writer.write("<rect x=\"");
+    writeNumber(surface.x);
+    writer.write("\" y=\"");
+    writeNumber(surface.y);
+    writer.write("\" width=\"");
+    writeNumber(surface.width);
+    writer.write("\" height=\"");
+    writeNumber(surface.height);
+    writer.write("\"/>\n");
+  }
+
+  /**
+   * Writes {@code value} rounded to two decimal places without trailing zeros. Unlike {@link Float#toString(float)}
+   * this never uses the scientific notation, which SVG does not allow in every attribute.
+   *
+   * @param value The value.
+   * @throws IOException
+   */
+  private void writeNumber(float value) throws IOException {
+    long hundredths = Math.round(value * 100.0);
+
+    if (hundredths < 0) {
+      writer.write('-');
+      hundredths = -hundredths;
+    }
+
+    writer.write(Long.toString(hundredths / 100));
+
+    final int fraction = (int) (hundredths % 100);
+
+    if (fraction != 0) {
+      writer.write('.');
+      writer.write('0' + fraction / 10);
+
+      if (fraction % 10 != 0)
+        writer.write('0' + fraction % 10);
+    }
+  }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.solvers;
+
+import de.mtneug.maze_cli.annotations.Solver;
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.model.MazeGrid;
+import de.mtneug.maze_cli.model.SimpleCorrectPath;
+import de.mtneug.maze_cli.util.IntMinHeap;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A* search for a shortest path from the start to the end cell. The open set is a binary heap over cell IDs, which is
+ * ordered by the length of the path so far plus the estimation of the {@link Heuristic}.
+ * <p/>
+ * The number of steps is the number of expanded cells.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@Solver(name = "astar")
+public class AStarMazeSolverAlgorithm extends AbstractShortestPathMazeSolverAlgorithm {
+  /**
+   * Name of the algorithm.
+   */
+  public final static String NAME = "astar";
+
+  /**
+   * The heuristic used if none is given.
+   */
+  public final static Heuristic DEFAULT_HEURISTIC = Heuristic.MANHATTAN;
+
+  /**
+   * The heuristic to use.
+   */
+  private final Heuristic heuristic;
+
+  /**
+   * The constructor.
+   *
+   * @param maze The maze to solve.
+   */
+  public AStarMazeSolverAlgorithm(Maze maze) {
+    this(maze, DEFAULT_HEURISTIC);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param maze      The maze to solve.
+   * @param heuristic The heuristic to use.
+   */
+  public AStarMazeSolverAlgorithm(Maze maze, Heuristic heuristic) {
+    super(maze);
+
+    if (heuristic == null)
+      throw new IllegalArgumentException("heuristic can't be null");
+
+    this.heuristic = heuristic;
+  }
+
+  /**
+   * Expands the open cell with the lowest estimated path length, until the end cell is expanded. Since the heuristics
+   * are consistent, an expanded cell is never opened again.
+   *
+   * @param maze      The maze to solve.
+   * @param solutions The list to which the found solutions should be added.
+   */
+  @Override
+  public void solve(Maze maze, List<SimpleCorrectPath> solutions) {
+    final MazeGrid grid = maze.getGrid();
+    final int startCellId = maze.getStartCell().getId();
+    final int endCellId = maze.getEndCell().getId();
+
+    final int[] parents = new int[grid.getCellCount()];
+    final int[] distances = new int[grid.getCellCount()];
+    final IntMinHeap open = new IntMinHeap(grid.getCellCount());
+
+    Arrays.fill(parents, NO_PARENT);
+    parents[startCellId] = startCellId;
+    open.add(startCellId, heuristic.estimate(grid, startCellId, endCellId));
+    visitedCells++;
+
+    while (!open.isEmpty()) {
+      updateFrontierPeak(open.size());
+
+      final int cellId = open.poll();
+      steps++;
+
+      if (cellId == endCellId) {
+        solutions.add(createPath(maze, parents, endCellId));
+        return;
+      }
+
+      final int links = grid.getLinks(cellId);
+      final int distance = distances[cellId] + 1;
+
+      for (int i = 0; i < DIRECTIONS.length; i++) {
+        if ((links & 1 << i) == 0)
+          continue;
+
+        final int neighborId = grid.getNeighborId(cellId, DIRECTIONS[i]);
+
+        if (parents[neighborId] == NO_PARENT) {
+          // newly reached cell
+          parents[neighborId] = cellId;
+          distances[neighborId] = distance;
+          open.add(neighborId, distance + heuristic.estimate(grid, neighborId, endCellId));
+          visitedCells++;
+        } else if (open.contains(neighborId) && distance < distances[neighborId]) {
+          // shorter path to an open cell
+          parents[neighborId] = cellId;
+          distances[neighborId] = distance;
+          open.decreasePriority(neighborId, distance + heuristic.estimate(grid, neighborId, endCellId));
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the used heuristic.
+   *
+   * @return The heuristic.
+   */
+  public Heuristic getHeuristic() {
+    return heuristic;
+  }
+
+  /**
+   * Returns the name of the object.
+   *
+   * @return The name of the object.
+   */
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  /**
+   * Returns statistics about this object in a CSV formatted string.
+   *
+   * @return A CSV formatted string.
+   */
+  @Override
+  public String getStatistics() {
+    return super.getStatistics() + "," + heuristic.getName();
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.solvers;
+
+import de.mtneug.maze_cli.model.Direction;
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.model.SimpleCorrectPath;
+import de.mtneug.maze_cli.util.IntStack;
+
+/**
+ * Base class for maze solver algorithms, which search for a shortest path on cell IDs. Found paths are described by
+ * parent arrays, where every reached cell stores the ID of the cell it was reached from and the root stores itself.
+ * <p/>
+ * The number of steps is the number of expanded cells.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public abstract class AbstractShortestPathMazeSolverAlgorithm extends AbstractMazeSolverAlgorithm {
+  /**
+   * All directions. Cached, since {@link Direction#values()} creates a new array on every call.
+   */
+  protected final static Direction[] DIRECTIONS = Direction.values();
+
+  /**
+   * Parent value of cells, which have not been reached yet.
+   */
+  protected final static int NO_PARENT = -1;
+
+  /**
+   * Number of cells, which have been reached.
+   */
+  protected long visitedCells = 0;
+
+  /**
+   * The maximum number of cells waiting to be expanded at the same time.
+   */
+  protected long frontierPeak = 0;
+
+  /**
+   * The constructor.
+   *
+   * @param maze The maze to solve.
+   */
+  public AbstractShortestPathMazeSolverAlgorithm(Maze maze) {
+    super(maze);
+  }
+
+  /**
+   * Creates the path from the root of {@code parents} to the cell with the given ID.
+   *
+   * @param maze    The maze to solve.
+   * @param parents The parent array.
+   * @param cellId  The ID of the last cell of the path.
+   * @return The path.
+   */
+  protected SimpleCorrectPath createPath(Maze maze, int[] parents, int cellId) {
+    final IntStack cellIds = new IntStack();
+
+    for (int id = cellId; ; id = parents[id]) {
+      cellIds.push(id);
+
+      if (parents[id] == id)
+        break;
+    }
+
+    final SimpleCorrectPath path = new SimpleCorrectPath(maze);
+
+    while (!cellIds.isEmpty())
+      path.addCell(maze.getCell(cellIds.pop()));
+
+    return path;
+  }
+
+  /**
+   * Appends the cell with the given ID and all its ancestors up to the root of {@code parents} to {@code path}.
+   *
+   * @param maze    The maze to solve.
+   * @param path    The path to extend.
+   * @param parents The parent array.
+   * @param cellId  The ID of the first cell to append.
+   */
+  protected void appendPathToRoot(Maze maze, SimpleCorrectPath path, int[] parents, int cellId) {
+    for (int id = cellId; ; id = parents[id]) {
+      path.addCell(maze.getCell(id));
+
+      if (parents[id] == id)
+        break;
+    }
+  }
+
+  /**
+   * Updates {@link #frontierPeak} with the current size of the frontier.
+   *
+   * @param frontierSize The current number of cells waiting to be expanded.
+   */
+  protected void updateFrontierPeak(long frontierSize) {
+    frontierPeak = Math.max(frontierPeak, frontierSize);
+  }
+
+  /**
+   * Returns the number of cells, which have been reached.
+   *
+   * @return The number of reached cells.
+   */
+  public long getVisitedCells() {
+    return visitedCells;
+  }
+
+  /**
+   * Returns the maximum number of cells waiting to be expanded at the same time.
+   *
+   * @return The frontier peak.
+   */
+  public long getFrontierPeak() {
+    return frontierPeak;
+  }
+
+  /**
+   * Returns statistics about this object in a CSV formatted string.
+   *
+   * @return A CSV formatted string.
+   */
+  @Override
+  public String getStatistics() {
+    return super.getStatistics() + "," +
+        visitedCells + "," +
+        frontierPeak;
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.solvers;
+
+import de.mtneug.maze_cli.annotations.Solver;
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.model.MazeGrid;
+import de.mtneug.maze_cli.model.SimpleCorrectPath;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bidirectional breadth-first search for a shortest path from the start to the end cell. One search begins with the
+ * start cell, the other one with the end cell. Always the search with the smaller frontier expands a whole level, until
+ * both searches meet.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@Solver(name = "bibfs")
+public class BidirectionalBreadthFirstMazeSolverAlgorithm extends AbstractShortestPathMazeSolverAlgorithm {
+  /**
+   * Name of the algorithm.
+   */
+  public final static String NAME = "bibfs";
+
+  /**
+   * The constructor.
+   *
+   * @param maze The maze to solve.
+   */
+  public BidirectionalBreadthFirstMazeSolverAlgorithm(Maze maze) {
+    super(maze);
+  }
+
+  /**
+   * Searches the maze from both sides, until the searches meet. The level in which they meet is completed, so the
+   * shortest connection is found.
+   *
+   * @param maze      The maze to solve.
+   * @param solutions The list to which the found solutions should be added.
+   */
+  @Override
+  public void solve(Maze maze, List<SimpleCorrectPath> solutions) {
+    final MazeGrid grid = maze.getGrid();
+    final int startCellId = maze.getStartCell().getId();
+    final int endCellId = maze.getEndCell().getId();
+
+    final Search forward = new Search(grid.getCellCount(), startCellId);
+    final Search backward = new Search(grid.getCellCount(), endCellId);
+    visitedCells += 2;
+
+    int shortestLength = Integer.MAX_VALUE;
+    int forwardMeetingId = NO_PARENT;
+    int backwardMeetingId = NO_PARENT;
+
+    while (!forward.isEmpty() && !backward.isEmpty()) {
+      updateFrontierPeak(forward.size() + backward.size());
+
+      final boolean isForward = forward.size() <= backward.size();
+      final Search current = isForward ? forward : backward;
+      final Search other = isForward ? backward : forward;
+
+      // expand a whole level
+      final int levelEnd = current.tail;
+
+      while (current.head < levelEnd) {
+        final int cellId = current.queue[current.head++];
+        final int links = grid.getLinks(cellId);
+        steps++;
+
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+          if ((links & 1 << i) == 0)
+            continue;
+
+          final int neighborId = grid.getNeighborId(cellId, DIRECTIONS[i]);
+
+          if (other.hasReached(neighborId)) {
+            // the searches meet
+            final int length = current.distances[cellId] + 1 + other.distances[neighborId];
+
+            if (length < shortestLength) {
+              shortestLength = length;
+              forwardMeetingId = isForward ? cellId : neighborId;
+              backwardMeetingId = isForward ? neighborId : cellId;
+            }
+          }
+
+          if (!current.hasReached(neighborId)) {
+            current.add(neighborId, cellId);
+            visitedCells++;
+          }
+        }
+      }
+
+      if (shortestLength != Integer.MAX_VALUE) {
+        final SimpleCorrectPath path = createPath(maze, forward.parents, forwardMeetingId);
+        appendPathToRoot(maze, path, backward.parents, backwardMeetingId);
+        solutions.add(path);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the name of the object.
+   *
+   * @return The name of the object.
+   */
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  /**
+   * The state of the search from one side.
+   */
+  private static class Search {
+    /**
+     * The parent of every reached cell.
+     */
+    private final int[] parents;
+
+    /**
+     * The distance of every reached cell to the root.
+     */
+    private final int[] distances;
+
+    /**
+     * The queue of reached cells. Every cell enters it at most once.
+     */
+    private final int[] queue;
+
+    /**
+     * Index of the next cell to expand.
+     */
+    private int head = 0;
+
+    /**
+     * Index of the next free slot in the queue.
+     */
+    private int tail = 0;
+
+    /**
+     * The constructor.
+     *
+     * @param cellCount The number of cells of the maze.
+     * @param rootId    The ID of the cell to begin with.
+     */
+    private Search(int cellCount, int rootId) {
+      this.parents = new int[cellCount];
+      this.distances = new int[cellCount];
+      this.queue = new int[cellCount];
+
+      Arrays.fill(parents, NO_PARENT);
+      add(rootId, rootId);
+    }
+
+    /**
+     * Adds a newly reached cell.
+     *
+     * @param cellId   The ID of the reached cell.
+     * @param parentId The ID of the cell it was reached from.
+     */
+    private void add(int cellId, int parentId) {
+      parents[cellId] = parentId;
+      distances[cellId] = cellId == parentId ? 0 : distances[parentId] + 1;
+      queue[tail++] = cellId;
+    }
+
+    /**
+     * Whether the cell with the given ID has been reached.
+     *
+     * @param cellId The ID of the cell.
+     * @return {@code true} if the cell has been reached, {@code false} otherwise.
+     */
+    private boolean hasReached(int cellId) {
+      return parents[cellId] != NO_PARENT;
+    }
+
+    /**
+     * Returns the number of cells waiting to be expanded.
+     *
+     * @return The size of the frontier.
+     */
+    private int size() {
+      return tail - head;
+    }
+
+    /**
+     * Whether there are no cells waiting to be expanded.
+     *
+     * @return {@code true} if the frontier is empty, {@code false} otherwise.
+     */
+    private boolean isEmpty() {
+      return head == tail;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.solvers;
+
+import de.mtneug.maze_cli.annotations.Solver;
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.model.MazeGrid;
+import de.mtneug.maze_cli.model.SimpleCorrectPath;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Breadth-first search for a shortest path from the start to the end cell.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@Solver(name = "bfs")
+public class BreadthFirstMazeSolverAlgorithm extends AbstractShortestPathMazeSolverAlgorithm {
+  /**
+   * Name of the algorithm.
+   */
+  public final static String NAME = "bfs";
+
+  /**
+   * The constructor.
+   *
+   * @param maze The maze to solve.
+   */
+  public BreadthFirstMazeSolverAlgorithm(Maze maze) {
+    super(maze);
+  }
+
+  /**
+   * Searches the maze breadth-first beginning with the start cell, until the end cell is reached. Every cell enters the
+   * queue at most once, so an array of the size of the maze is enough.
+   *
+   * @param maze      The maze to solve.
+   * @param solutions The list to which the found solutions should be added.
+   */
+  @Override
+  public void solve(Maze maze, List<SimpleCorrectPath> solutions) {
+    final MazeGrid grid = maze.getGrid();
+    final int startCellId = maze.getStartCell().getId();
+    final int endCellId = maze.getEndCell().getId();
+
+    final int[] parents = new int[grid.getCellCount()];
+    final int[] queue = new int[grid.getCellCount()];
+    int head = 0;
+    int tail = 0;
+
+    Arrays.fill(parents, NO_PARENT);
+    parents[startCellId] = startCellId;
+    queue[tail++] = startCellId;
+    visitedCells++;
+
+    while (head < tail) {
+      updateFrontierPeak(tail - head);
+
+      final int cellId = queue[head++];
+      steps++;
+
+      if (cellId == endCellId) {
+        solutions.add(createPath(maze, parents, endCellId));
+        return;
+      }
+
+      final int links = grid.getLinks(cellId);
+
+      for (int i = 0; i < DIRECTIONS.length; i++) {
+        if ((links & 1 << i) == 0)
+          continue;
+
+        final int neighborId = grid.getNeighborId(cellId, DIRECTIONS[i]);
+
+        if (parents[neighborId] == NO_PARENT) {
+          parents[neighborId] = cellId;
+          queue[tail++] = neighborId;
+          visitedCells++;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the name of the object.
+   *
+   * @return The name of the object.
+   */
+  @Override
+  public String getName() {
+    return NAME;
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.solvers;
+
+import de.mtneug.maze_cli.annotations.Solver;
+import de.mtneug.maze_cli.model.Maze;
+import de.mtneug.maze_cli.model.MazeGrid;
+import de.mtneug.maze_cli.model.SimpleCorrectPath;
+import de.mtneug.maze_cli.util.IntHistogram;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dead-end filling solver. All cells with only one link except the start and end cell are filled, which may turn their
+ * neighbors into new dead ends. This is repeated until no dead end is left, so only cells which may lie on a solution
+ * remain. The solution is then searched breadth-first on the remaining cells.
+ * <p/>
+ * Since every dead end of the maze is visited, the solver also collects a histogram of dead end lengths. A dead end is
+ * the corridor between a cell with one link and the next cell, which has not exactly two links or is the start or end
+ * cell. Its length is the number of cells in the corridor.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@Solver(name = "deadend-fill")
+public class DeadEndFillingMazeSolverAlgorithm extends AbstractShortestPathMazeSolverAlgorithm {
+  /**
+   * Name of the algorithm.
+   */
+  public final static String NAME = "deadend-fill";
+
+  /**
+   * Histogram of the dead end lengths.
+   */
+  private final IntHistogram deadEnds = new IntHistogram();
+
+  /**
+   * Number of filled cells.
+   */
+  private long filledCells = 0;
+
+  /**
+   * The constructor.
+   *
+   * @param maze The maze to solve.
+   */
+  public DeadEndFillingMazeSolverAlgorithm(Maze maze) {
+    super(maze);
+  }
+
+  /**
+   * Fills all dead ends and searches the solution on the remaining cells.
+   *
+   * @param maze      The maze to solve.
+   * @param solutions The list to which the found solutions should be added.
+   */
+  @Override
+  public void solve(Maze maze, List<SimpleCorrectPath> solutions) {
+    final MazeGrid grid = maze.getGrid();
+    final int startCellId = maze.getStartCell().getId();
+    final int endCellId = maze.getEndCell().getId();
+    final boolean[] filled = new boolean[grid.getCellCount()];
+
+    fillDeadEnds(grid, startCellId, endCellId, filled);
+
+    // search the solution on the remaining cells
+    final int[] parents = new int[grid.getCellCount()];
+    final int[] queue = new int[grid.getCellCount()];
+    int head = 0;
+    int tail = 0;
+
+    Arrays.fill(parents, NO_PARENT);
+    parents[startCellId] = startCellId;
+    queue[tail++] = startCellId;
+    visitedCells++;
+
+    while (head < tail) {
+      updateFrontierPeak(tail - head);
+
+      final int cellId = queue[head++];
+      steps++;
+
+      if (cellId == endCellId) {
+        solutions.add(createPath(maze, parents, endCellId));
+        return;
+      }
+
+      final int links = grid.getLinks(cellId);
+
+      for (int i = 0; i < DIRECTIONS.length; i++) {
+        if ((links & 1 << i) == 0)
+          continue;
+
+        final int neighborId = grid.getNeighborId(cellId, DIRECTIONS[i]);
+
+        if (!filled[neighborId] && parents[neighborId] == NO_PARENT) {
+          parents[neighborId] = cellId;
+          queue[tail++] = neighborId;
+          visitedCells++;
+        }
+      }
+    }
+  }
+
+  /**
+   * Fills all dead ends. The number of not yet filled neighbors of every cell is kept in a degree array. Cells, whose
+   * degree drops to one, are added to the queue of cells to fill, so every cell is looked at only once.
+   *
+   * @param grid        The grid of the maze.
+   * @param startCellId The ID of the start cell.
+   * @param endCellId   The ID of the end cell.
+   * @param filled      The array to mark filled cells in.
+   */
+  private void fillDeadEnds(MazeGrid grid, int startCellId, int endCellId, boolean[] filled) {
+    final byte[] degrees = new byte[grid.getCellCount()];
+    final int[] queue = new int[grid.getCellCount()];
+    // length of the dead end up to a cell or 0 if the cell does not lie in a dead end corridor
+    final int[] lengths = new int[grid.getCellCount()];
+    int head = 0;
+    int tail = 0;
+
+    for (int cellId = 0; cellId < grid.getCellCount(); cellId++) {
+      degrees[cellId] = (byte) grid.getLinkCount(cellId);
+
+      if (degrees[cellId] == 1 && cellId != startCellId && cellId != endCellId) {
+        queue[tail++] = cellId;
+        lengths[cellId] = 1;
+      }
+    }
+
+    while (head < tail) {
+      final int cellId = queue[head++];
+      final int links = grid.getLinks(cellId);
+      boolean hasOpenNeighbor = false;
+
+      filled[cellId] = true;
+      filledCells++;
+
+      for (int i = 0; i < DIRECTIONS.length; i++) {
+        if ((links & 1 << i) == 0)
+          continue;
+
+        final int neighborId = grid.getNeighborId(cellId, DIRECTIONS[i]);
+
+        if (filled[neighborId])
+          continue;
+
+        hasOpenNeighbor = true;
+        degrees[neighborId]--;
+
+        final boolean isDeadEnd = degrees[neighborId] == 1 && neighborId != startCellId && neighborId != endCellId;
+
+        if (lengths[cellId] > 0) {
+          if (isDeadEnd && grid.getLinkCount(neighborId) == 2)
+            // the corridor continues
+            lengths[neighborId] = lengths[cellId] + 1;
+          else
+            deadEnds.add(lengths[cellId]);
+        }
+
+        if (isDeadEnd)
+          queue[tail++] = neighborId;
+      }
+
+      if (!hasOpenNeighbor && lengths[cellId] > 0)
+        // the last cell of a disconnected part
+        deadEnds.add(lengths[cellId]);
+    }
+  }
+
+  /**
+   * Returns the histogram of dead end lengths.
+   *
+   * @return The histogram of dead end lengths.
+   */
+  public IntHistogram getDeadEnds() {
+    return deadEnds;
+  }
+
+  /**
+   * Returns the number of filled cells.
+   *
+   * @return The number of filled cells.
+   */
+  public long getFilledCells() {
+    return filledCells;
+  }
+
+  /**
+   * Returns the name of the object.
+   *
+   * @return The name of the object.
+   */
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  /**
+   * Returns statistics about this object in a CSV formatted string.
+   *
+   * @return A CSV formatted string.
+   */
+  @Override
+  public String getStatistics() {
+    return super.getStatistics() + "," +
+        filledCells + "," +
+
+        // dead ends
+        deadEnds.getCount() + "," +
+        deadEnds.getMean() + "," +
+        deadEnds.getMax();
+  }
+
+  /**
+   * Returns the distribution of the dead end lengths, whose length varies from maze to maze.
+   *
+   * @return A CSV formatted string.
+   */
+  @Override
+  public String getTrailingStatistics() {
+    return deadEnds.getDistribution();
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.solvers;
+
+import de.mtneug.maze_cli.model.MazeGrid;
+
+/**
+ * An enum defining heuristics estimating the distance between two cells. All of them never overestimate the distance.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @see AStarMazeSolverAlgorithm
+ * @since 1.1
+ */
+public enum Heuristic {
+  /**
+   * The Manhattan distance, i.e. the length of the path if there were no walls.
+   */
+  MANHATTAN("manhattan") {
+    @Override
+    public int estimate(MazeGrid grid, int cellId, int targetId) {
+      return Math.abs(grid.getCellX(cellId) - grid.getCellX(targetId)) +
+          Math.abs(grid.getCellY(cellId) - grid.getCellY(targetId));
+    }
+  },
+
+  /**
+   * Always zero, which turns A* into Dijkstra’s algorithm.
+   */
+  ZERO("zero") {
+    @Override
+    public int estimate(MazeGrid grid, int cellId, int targetId) {
+      return 0;
+    }
+  };
+
+  /**
+   * The name of the heuristic as used on the CLI.
+   */
+  private final String name;
+
+  /**
+   * The constructor.
+   *
+   * @param name The name of the heuristic.
+   */
+  Heuristic(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Returns the heuristic with the given name.
+   *
+   * @param name The name of the heuristic.
+   * @return The heuristic or {@code null} if there is none with that name.
+   */
+  public static Heuristic getHeuristic(String name) {
+    for (Heuristic heuristic : values())
+      if (heuristic.name.equals(name))
+        return heuristic;
+
+    return null;
+  }
+
+  /**
+   * Estimates the distance between two cells.
+   *
+   * @param grid     The grid of the maze.
+   * @param cellId   The ID of the cell.
+   * @param targetId The ID of the target cell.
+   * @return The estimated distance.
+   */
+  public abstract int estimate(MazeGrid grid, int cellId, int targetId);
+
+  /**
+   * Returns the name of the heuristic as used on the CLI.
+   *
+   * @return The name of the heuristic.
+   */
+  public String getName() {
+    return name;
+  }
+}
@@ -6,7 +6,8 @@ package de.mtneug.maze_cli.solvers;
 
 import de.mtneug.maze_cli.annotations.Solver;
 import de.mtneug.maze_cli.model.*;
-import de.mtneug.maze_cli.util.Lists;
+import de.mtneug.maze_cli.util.IntStack;
+import de.mtneug.maze_cli.util.RandomNumberGenerator;
 
 import java.util.*;
 
@@ -25,9 +26,14 @@ public class TremauxMazeSolverAlgorithm extends AbstractMazeSolverAlgorithm {
   public final static String NAME = "tremaux";
 
   /**
-   * TODO: make more general
+   * All directions. Cached, since {@link Direction#values()} creates a new array on every call.
    */
-  protected final Random random = new Random();
+  private final static Direction[] DIRECTIONS = Direction.values();
+
+  /**
+   * The random number generator used to choose between equally often seen directions.
+   */
+  protected final RandomNumberGenerator random;
 
   /**
    * The found solution.
@@ -35,9 +41,34 @@ public class TremauxMazeSolverAlgorithm extends AbstractMazeSolverAlgorithm {
   private final SimpleCorrectPath solution;
 
   /**
-   * A map of encountered places with there cells.
+   * The marks of all encountered places.
+   */
+  private final PlaceMarks places;
+
+  /**
+   * The IDs of the cells on the currently followed path without the start cell.
+   */
+  private final IntStack trail = new IntStack();
+
+  /**
+   * The ID of the end cell.
+   */
+  private int endCellId;
+
+  /**
+   * The stack of visits. Only the first {@link #visitCount} entries are valid, the others are kept for reuse.
+   */
+  private final List<Visit> visits = new ArrayList<>();
+
+  /**
+   * The number of visits on the stack.
    */
-  private final Map<Cell, Place> places = new LinkedHashMap<>();
+  private int visitCount = 0;
+
+  /**
+   * Buffer for the least seen directions of a place.
+   */
+  private final Direction[] leastSeenDirections = new Direction[DIRECTIONS.length];
 
   /**
    * Number of how many times a place has been encountered.
@@ -50,19 +81,31 @@ public class TremauxMazeSolverAlgorithm extends AbstractMazeSolverAlgorithm {
   private long placesPartOfSolution = 0;
 
   /**
-   * Length of dead ends.
+   * Number of dead ends.
    */
-  private List<Long> deadEnds = new ArrayList<>();
+  private long deadEndCount = 0;
+
+  /**
+   * Summed up length of dead ends.
+   */
+  private long deadEndLengthSum = 0;
 
   /**
    * The constructor.
    *
-   * @param maze The maze to solve.
+   * @param maze   The maze to solve.
+   * @param random The random number generator to use.
    */
-  public TremauxMazeSolverAlgorithm(Maze maze) {
+  public TremauxMazeSolverAlgorithm(Maze maze, RandomNumberGenerator random) {
     super(maze);
+
+    if (random == null)
+      throw new IllegalArgumentException("random can't be null");
+
+    this.random = random;
     // Trémaux’ method finds only one solution, if it exists
     this.solution = new SimpleCorrectPath(maze);
+    this.places = new PlaceMarks(maze.getGrid());
   }
 
   /**
@@ -75,122 +118,170 @@ public class TremauxMazeSolverAlgorithm extends AbstractMazeSolverAlgorithm {
   @Override
   public void solve(Maze maze, List<SimpleCorrectPath> solutions) {
     solution.addCell(maze.getStartCell());
+    endCellId = maze.getEndCell().getId();
+
+    if (handlePlace(maze, maze.getStartCell().getId())) {
+      // only now the cells of the solution are created
+      for (int i = 0; i < trail.size(); i++)
+        solution.addCell(maze.getCell(trail.get(i)));
 
-    if (handlePlace(maze, maze.getStartCell(), null, solution))
       solutions.add(solution);
+    }
   }
 
   /**
-   * Code to handle an encountered place.
+   * Code to handle the initial place. Places reached while following a direction are handled with an explicit stack of
+   * {@link Visit visits} instead of recursion, so the depth of the search is not limited by the size of the thread
+   * stack. The IDs of the cells on the current path are recorded in {@link #trail}.
+   *
+   * @param maze   The maze to solve.
+   * @param cellId The ID of the cell the place is based of.
+   * @return {@code true} if this place is part of the solution, {@code false} if not. So if {@code false} is returned,
+   * the maze has no solution.
+   */
+  private boolean handlePlace(Maze maze, int cellId) {
+    // null means that the visit on top of the stack still has to follow its chosen direction
+    Boolean result = enterPlace(maze, cellId, null);
+
+    while (visitCount > 0) {
+      final Visit visit = visits.get(visitCount - 1);
+
+      if (result == null) {
+        result = follow(maze, visit);
+
+        if (result == null)
+          // a new place has been entered, which has to be handled first
+          continue;
+      } else
+        // the place found by following the chosen direction of this visit has been handled
+        steps += result ? visit.subSteps : 2 * visit.subSteps;
+
+      visitCount--;
+
+      if (result) {
+        // the direction did lead to the end and so did all directions followed by the places below on the stack
+        placesPartOfSolution += 1 + visitCount;
+
+        for (int i = 0; i < visitCount; i++)
+          steps += visits.get(i).subSteps;
+
+        return true;
+      }
+
+      // the direction did not lead to the end, so forget its path and look at the place again
+      trail.truncate(visit.trailStart);
+      result = enterPlace(maze, visit.cellId, visit.comingFrom);
+    }
+
+    return result;
+  }
+
+  /**
+   * Enters a place and decides, whether it is part of the solution or which direction to follow next. In the latter
+   * case a new {@link Visit} is pushed onto {@link #visits}.
    *
    * @param maze       The maze to solve.
-   * @param cell       The cell the place is based of.
+   * @param cellId     The ID of the cell the place is based of.
    * @param comingFrom The direction we have entered the place from. {@code null} for the initial start place.
-   * @param path       The current sub path.
-   * @return {@code true} if this place is part of the solution, {@code false} if not. So if {@code cell} is the start
-   * cell of the maze and {@code false} is returned, the maze has no solution.
+   * @return {@code true} or {@code false} if it is already known whether this place is part of the solution,
+   * {@code null} if a direction has to be followed first.
    */
-  private boolean handlePlace(Maze maze, Cell cell, Direction comingFrom, SimpleCorrectPath path) {
-    boolean isNewPlace = !places.containsKey(cell);
+  private Boolean enterPlace(Maze maze, int cellId, Direction comingFrom) {
+    boolean isNewPlace = places.addPlace(cellId);
     totalPlaceVisits++;
 
-    if (isNewPlace)
-      places.put(cell, new Place(cell));
-
-    if (cell.getLinkedDirections().isEmpty()) {
+    if (maze.getGrid().getLinkCount(cellId) == 0) {
       // it is not possible to go anywhere from this cell
       // this can only happen, if this is the start cell
-      deadEnds.add(1L);
+      addDeadEnd(1);
       return false;
     }
 
-    final Place place = places.get(cell);
-
     if (comingFrom != null)
       // mark as seen from that direction
-      place.addSeen(comingFrom);
+      places.addSeen(cellId, comingFrom);
 
-    if (place.getLowestSeenValue() >= 2)
+    if (places.getLowestSeenValue(cellId) >= 2)
       // place has no other direction we have not seen at least twice
       // this place is not in the solution
       return false;
 
-    if (!isNewPlace && comingFrom != null && place.getSeenValueOf(comingFrom) == 1) {
+    if (!isNewPlace && comingFrom != null && places.getSeenValueOf(cellId, comingFrom) == 1) {
       // place has been visited before, but not via this direction => go back and mark as seen again
-      place.addSeen(comingFrom);
+      places.addSeen(cellId, comingFrom);
       return false;
     }
 
     // being here means that there are still directions we can follow
 
     // choose direction to follow
-    final SimpleCorrectPath subPath = new SimpleCorrectPath(maze);
-    final Direction chosenDirection = Lists.chooseRandomItem(place.getLeastSeenDirections(), random);
-    place.addSeen(chosenDirection);
-
-    if (follow(maze, cell, chosenDirection, subPath)) {
-      // the direction did lead to the end
-      placesPartOfSolution++;
-      path.merge(subPath);
-      return true;
-    } else
-      // the direction did not lead to the end
-      return handlePlace(maze, cell, comingFrom, path);
+    final int count = places.getLeastSeenDirections(cellId, leastSeenDirections);
+    final Direction chosenDirection = leastSeenDirections[random.nextInt(count)];
+    places.addSeen(cellId, chosenDirection);
+
+    if (visitCount == visits.size())
+      visits.add(new Visit());
+
+    visits.get(visitCount++).set(cellId, comingFrom, chosenDirection, trail.size());
+    return null;
   }
 
   /**
-   * Follows {@code currentCell} in the the initially given {@code currentDirection} and thus builds up {@code path},
-   * until it encounters a place or the end cell of the maze. {@code currentCell} is not part of the {@code path}, the
-   * found place or the end cell is.
+   * Follows the cell of {@code visit} in its chosen direction and thus adds to {@link #trail}, until it encounters a
+   * place or the end cell of the maze. The cell of the visit is not added, the found place or the end cell is.
    *
-   * @param maze             The maze to solve.
-   * @param currentCell      The cell to start for following.
-   * @param currentDirection The initial direction to follow.
-   * @param path             The path to build.
-   * @return {@code true} if {@code path} leads to the end cell, {@code false} otherwise.
+   * @param maze  The maze to solve.
+   * @param visit The visit, whose direction to follow.
+   * @return {@code true} if the followed path leads to the end cell, {@code false} otherwise and {@code null} if a place
+   * has been found, for which a new visit was pushed onto {@link #visits}.
    */
-  private boolean follow(Maze maze, Cell currentCell, Direction currentDirection, SimpleCorrectPath path) {
+  private Boolean follow(Maze maze, Visit visit) {
+    final MazeGrid grid = maze.getGrid();
+    Direction currentDirection = visit.direction;
     long subSteps = 0;
-    currentCell = currentCell.getNeighborPositioned(currentDirection);
-    path.addCell(currentCell);
+    int cellId = grid.getNeighborId(visit.cellId, currentDirection);
+    trail.push(cellId);
 
     while (true) {
       // count steps
       subSteps++;
 
-      if (currentCell.equals(maze.getEndCell())) {
+      if (cellId == endCellId) {
         // found end cell
         steps += subSteps;
         return true;
       }
 
       // otherwise look how to go from here
-      final Set<Direction> directions = currentCell.getLinkedDirections();
-      switch (directions.size()) {
+      final int links = grid.getLinks(cellId);
+
+      switch (Integer.bitCount(links)) {
         case 0:
           // how did we got here if there is no direction we can follow from here?
           throw new IllegalStateException("the maze is not properly instantiated");
 
         case 1:
           // dead end => not part of the solution
-          deadEnds.add(subSteps);
+          addDeadEnd(subSteps);
           steps += 2 * subSteps;
           return false;
 
         case 2:
           // find the other direction we can follow
-          for (Direction direction : directions)
-            if (currentDirection != direction.getOpposite()) {
-              currentDirection = direction;
-              currentCell = path.goAndAdd(currentDirection);
-              break;
-            }
+          final int otherLinks = links & ~(1 << currentDirection.getOpposite().ordinal());
+          currentDirection = DIRECTIONS[Integer.numberOfTrailingZeros(otherLinks)];
+          cellId = grid.getNeighborId(cellId, currentDirection);
+          trail.push(cellId);
           break;
 
         default:
           // it is a place
-          final boolean partOfSolution = handlePlace(maze, currentCell, currentDirection.getOpposite(), path);
-          steps += partOfSolution ? subSteps : 2 * subSteps;
+          visit.subSteps = subSteps;
+          final Boolean partOfSolution = enterPlace(maze, cellId, currentDirection.getOpposite());
+
+          if (partOfSolution != null)
+            steps += partOfSolution ? subSteps : 2 * subSteps;
+
           return partOfSolution;
       }
     }
@@ -215,12 +306,12 @@ public class TremauxMazeSolverAlgorithm extends AbstractMazeSolverAlgorithm {
   public String getStatistics() {
     return super.getStatistics() + "," +
         // place statistics
-        places.size() + "," +
+        places.getPlaceCount() + "," +
         placesPartOfSolution + "," +
         totalPlaceVisits + "," +
 
         // dead ends
-        deadEnds.size() + "," +
+        deadEndCount + "," +
         calculateDeadEndsMean();
   }
 
@@ -230,14 +321,66 @@ public class TremauxMazeSolverAlgorithm extends AbstractMazeSolverAlgorithm {
    * @return The mean length of a dead end.
    */
   private double calculateDeadEndsMean() {
-    if (deadEnds.size() == 0)
+    if (deadEndCount == 0)
       return 0;
 
-    double sum = 0;
+    return (double) deadEndLengthSum / deadEndCount;
+  }
 
-    for (Long length : deadEnds)
-      sum += length;
+  /**
+   * Records a dead end.
+   *
+   * @param length The length of the dead end.
+   */
+  private void addDeadEnd(long length) {
+    deadEndCount++;
+    deadEndLengthSum += length;
+  }
 
-    return sum / deadEnds.size();
+  /**
+   * A place, whose chosen direction is currently followed. It replaces a stack frame of a recursive implementation and is
+   * reused once it has been popped from the stack.
+   */
+  private static class Visit {
+    /**
+     * The ID of the cell the place is based of.
+     */
+    private int cellId;
+
+    /**
+     * The direction we have entered the place from. {@code null} for the initial start place.
+     */
+    private Direction comingFrom;
+
+    /**
+     * The chosen direction to follow.
+     */
+    private Direction direction;
+
+    /**
+     * The size of the trail before following {@link #direction}.
+     */
+    private int trailStart;
+
+    /**
+     * Number of steps needed to reach the next place by following {@link #direction}.
+     */
+    private long subSteps;
+
+    /**
+     * Sets all values of the visit.
+     *
+     * @param cellId     The ID of the cell the place is based of.
+     * @param comingFrom The direction we have entered the place from.
+     * @param direction  The chosen direction to follow.
+     * @param trailStart The size of the trail before following {@code direction}.
+     */
+    private void set(int cellId, Direction comingFrom, Direction direction, int trailStart) {
+      this.cellId = cellId;
+      this.comingFrom = comingFrom;
+      this.direction = direction;
+      this.trailStart = trailStart;
+      this.subSteps = 0;
+    }
   }
 }
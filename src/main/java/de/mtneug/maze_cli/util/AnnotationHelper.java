@@ -6,20 +6,31 @@ package de.mtneug.maze_cli.util;
 
 import org.reflections.Reflections;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 
 /**
- * Helper methods for annotation
+ * Helper methods for annotation. Annotated classes are looked up in the index written by the annotation processor at
+ * compile time. Only if no index can be found, e.g. when the classes were compiled without the processor, the
+ * classpath is scanned.
  *
  * @author Matthias Neugebauer
  * @version 1.0
  * @since 1.0
  */
 public final class AnnotationHelper {
+  /**
+   * Path of the index resources. Must match the path used by the annotation processor.
+   */
+  public final static String INDEX_PATH = "META-INF/maze-cli/index/";
+
   /**
    * Private constructor.
    */
@@ -47,10 +58,9 @@ public final class AnnotationHelper {
    */
   public static <A extends Annotation, T, F> Map<F, T> searchAndInstantiate(Class<A> annotationClass, String field, Class<F> fieldClass, Class<T> annotatedBaseClass) throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
     final Map<F, T> map = new LinkedHashMap<>();
-    final Reflections reflections = new Reflections("");
     final Method fieldMethod = annotationClass.getMethod(field);
 
-    for (Class<?> annotatedClass : reflections.getTypesAnnotatedWith(annotationClass)) {
+    for (Class<?> annotatedClass : findAnnotatedClasses(annotationClass)) {
       final T adapterInstance = annotatedBaseClass.cast(annotatedClass.newInstance());
       final Annotation entry = annotatedClass.getAnnotation(annotationClass);
       map.put(fieldClass.cast(fieldMethod.invoke(entry)), adapterInstance);
@@ -80,14 +90,64 @@ public final class AnnotationHelper {
   @SuppressWarnings("unchecked")
   public static <A extends Annotation, T, F> Map<F, Class<? extends T>> search(Class<A> annotationClass, String field, Class<F> fieldClass, Class<T> annotatedBaseClass) throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
     final Map<F, Class<? extends T>> map = new LinkedHashMap<>();
-    final Reflections reflections = new Reflections("");
     final Method fieldMethod = annotationClass.getMethod(field);
 
-    for (Class<?> annotatedClass : reflections.getTypesAnnotatedWith(annotationClass)) {
+    for (Class<?> annotatedClass : findAnnotatedClasses(annotationClass)) {
       final Annotation entry = annotatedClass.getAnnotation(annotationClass);
       map.put(fieldClass.cast(fieldMethod.invoke(entry)), (Class<? extends T>) annotatedClass);
     }
 
     return map;
   }
+
+  /**
+   * Finds all classes annotated with {@code annotationClass}. The index resources of all classpath entries are read. If
+   * there are none, the classpath is scanned.
+   *
+   * @param annotationClass The annotation class to search for.
+   * @param <A>             The annotation to search for.
+   * @return The annotated classes.
+   */
+  private static <A extends Annotation> Set<Class<?>> findAnnotatedClasses(Class<A> annotationClass) {
+    final ClassLoader classLoader = annotationClass.getClassLoader();
+    final Set<Class<?>> annotatedClasses = new LinkedHashSet<>();
+    boolean indexFound = false;
+
+    try {
+      final Enumeration<URL> resources = classLoader.getResources(INDEX_PATH + annotationClass.getName());
+
+      while (resources.hasMoreElements()) {
+        indexFound = true;
+
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+          String className;
+
+          while ((className = reader.readLine()) != null) {
+            className = className.trim();
+
+            if (className.isEmpty())
+              continue;
+
+            try {
+              final Class<?> annotatedClass = Class.forName(className, false, classLoader);
+
+              // skip stale entries
+              if (annotatedClass.isAnnotationPresent(annotationClass))
+                annotatedClasses.add(annotatedClass);
+            } catch (ClassNotFoundException e) {
+              // Ignore stale entries
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+      indexFound = false;
+    }
+
+    if (!indexFound)
+      return new Reflections("").getTypesAnnotatedWith(annotationClass);
+
+    return annotatedClasses;
+  }
 }
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+import java.awt.*;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Encoder of PNG images with an indexed color palette and 8 bits per pixel. The image is passed row by row and the
+ * compressed data is written in chunks of at most {@link #CHUNK_SIZE} bytes, so only two rows and a single chunk are
+ * held in memory regardless of the size of the image.
+ * <p/>
+ * A row equal to the previous one is stored with the {@code Up} filter, which turns it into zeros. Runs of zeros are
+ * compressed much faster than the actual pixels, which pays off for images scaled up by repeating rows.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class IndexedPngEncoder implements Closeable {
+  /**
+   * The maximum size of the data of a chunk.
+   */
+  public final static int CHUNK_SIZE = 64 * 1024;
+
+  /**
+   * The signature every PNG file starts with.
+   */
+  private final static byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+  /**
+   * Color type of images with a palette.
+   */
+  private final static int COLOR_TYPE_INDEXED = 3;
+
+  /**
+   * Filter type of rows, which are stored unfiltered.
+   */
+  private final static byte FILTER_NONE = 0;
+
+  /**
+   * Filter type of rows, which are stored as difference to the previous row.
+   */
+  private final static byte FILTER_UP = 2;
+
+  /**
+   * The stream the image is written to.
+   */
+  private final OutputStream out;
+
+  /**
+   * The width of the image in pixels.
+   */
+  private final int width;
+
+  /**
+   * The height of the image in pixels.
+   */
+  private final int height;
+
+  /**
+   * The compressor of the image data.
+   */
+  private final Deflater deflater;
+
+  /**
+   * The buffer of the compressed data of the current chunk.
+   */
+  private final byte[] chunk = new byte[CHUNK_SIZE];
+
+  /**
+   * The number of bytes of the current chunk already filled.
+   */
+  private int chunkLength = 0;
+
+  /**
+   * The checksum calculator of the chunks.
+   */
+  private final CRC32 crc = new CRC32();
+
+  /**
+   * The filter type written in front of every row.
+   */
+  private final byte[] filterType = new byte[1];
+
+  /**
+   * The previous row.
+   */
+  private final byte[] previousRow;
+
+  /**
+   * A row of zeros, i.e. the previous row with the {@code Up} filter applied.
+   */
+  private final byte[] zeroRow;
+
+  /**
+   * The number of rows written so far.
+   */
+  private int rows = 0;
+
+  /**
+   * The constructor. Writes the header and the palette.
+   *
+   * @param out              The stream to write the image to. It is not closed by this encoder.
+   * @param width            The width of the image in pixels.
+   * @param height           The height of the image in pixels.
+   * @param palette          The colors of the palette. Index {@code i} of a pixel refers to {@code palette[i]}.
+   * @param compressionLevel The compression level of the {@link Deflater}.
+   * @throws IOException
+   */
+  public IndexedPngEncoder(OutputStream out, int width, int height, Color[] palette, int compressionLevel)
+      throws IOException {
+    if (out == null)
+      throw new IllegalArgumentException("out can't be null");
+    if (width < 1 || height < 1)
+      throw new IllegalArgumentException("Dimension must be at least 1x1");
+    if (palette.length < 1 || palette.length > 256)
+      throw new IllegalArgumentException("palette must have between 1 and 256 colors");
+
+    this.out = out;
+    this.width = width;
+    this.height = height;
+    this.deflater = new Deflater(compressionLevel);
+    this.previousRow = new byte[width];
+    this.zeroRow = new byte[width];
+
+    out.write(SIGNATURE);
+
+    final byte[] header = new byte[13];
+    putInt(header, 0, width);
+    putInt(header, 4, height);
+    header[8] = 8;
+    header[9] = COLOR_TYPE_INDEXED;
+    writeChunk("IHDR", header, header.length);
+
+    final byte[] colors = new byte[3 * palette.length];
+    for (int i = 0; i < palette.length; i++) {
+      colors[3 * i] = (byte) palette[i].getRed();
+      colors[3 * i + 1] = (byte) palette[i].getGreen();
+      colors[3 * i + 2] = (byte) palette[i].getBlue();
+    }
+    writeChunk("PLTE", colors, colors.length);
+  }
+
+  /**
+   * Writes the next row of the image.
+   *
+   * @param row The palette indices of the pixels of the row. Only the first {@code width} entries are used.
+   * @throws IOException
+   * @throws IllegalStateException if all rows have already been written.
+   */
+  public void writeRow(byte[] row) throws IOException {
+    if (rows == height)
+      throw new IllegalStateException("all rows have already been written");
+
+    if (rows > 0 && isPreviousRow(row)) {
+      filterType[0] = FILTER_UP;
+      deflate(filterType, 1);
+      deflate(zeroRow, width);
+    } else {
+      filterType[0] = FILTER_NONE;
+      deflate(filterType, 1);
+      deflate(row, width);
+      System.arraycopy(row, 0, previousRow, 0, width);
+    }
+
+    rows++;
+  }
+
+  /**
+   * Writes the remaining compressed data and the end of the image. The stream is flushed but not closed.
+   *
+   * @throws IOException
+   * @throws IllegalStateException if not all rows have been written.
+   */
+  public void finish() throws IOException {
+    if (rows != height)
+      throw new IllegalStateException("only " + rows + " of " + height + " rows have been written");
+
+    deflater.finish();
+
+    while (!deflater.finished())
+      drainDeflater();
+
+    if (chunkLength > 0)
+      writeChunk("IDAT", chunk, chunkLength);
+
+    writeChunk("IEND", chunk, 0);
+    out.flush();
+  }
+
+  /**
+   * Releases the compressor. The stream is not closed.
+   */
+  @Override
+  public void close() {
+    deflater.end();
+  }
+
+  /**
+   * Checks whether the given row equals the previous one.
+   *
+   * @param row The palette indices of the pixels of the row.
+   * @return {@code true} if the rows are equal, {@code false} otherwise.
+   */
+  private boolean isPreviousRow(byte[] row) {
+    for (int i = 0; i < width; i++)
+      if (row[i] != previousRow[i])
+        return false;
+
+    return true;
+  }
+
+  /**
+   * Compresses the given data.
+   *
+   * @param data   The data.
+   * @param length The number of bytes to compress.
+   * @throws IOException
+   */
+  private void deflate(byte[] data, int length) throws IOException {
+    deflater.setInput(data, 0, length);
+
+    while (!deflater.needsInput())
+      drainDeflater();
+  }
+
+  /**
+   * Moves compressed data from the compressor into the current chunk and writes the chunk if it is full.
+   *
+   * @throws IOException
+   */
+  private void drainDeflater() throws IOException {
+    chunkLength += deflater.deflate(chunk, chunkLength, chunk.length - chunkLength);
+
+    if (chunkLength == chunk.length) {
+      writeChunk("IDAT", chunk, chunkLength);
+      chunkLength = 0;
+    }
+  }
+
+  /**
+   * Writes a chunk.
+   *
+   * @param type   The four letter type of the chunk.
+   * @param data   The data of the chunk.
+   * @param length The number of bytes of the data.
+   * @throws IOException
+   */
+  private void writeChunk(String type, byte[] data, int length) throws IOException {
+    final byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+    final byte[] intBytes = new byte[4];
+
+    putInt(intBytes, 0, length);
+    out.write(intBytes);
+    out.write(typeBytes);
+    out.write(data, 0, length);
+
+    crc.reset();
+    crc.update(typeBytes);
+    crc.update(data, 0, length);
+    putInt(intBytes, 0, (int) crc.getValue());
+    out.write(intBytes);
+  }
+
+  /**
+   * Stores {@code value} big endian in {@code buffer}.
+   *
+   * @param buffer The buffer.
+   * @param offset The index of the first byte.
+   * @param value  The value.
+   */
+  private static void putInt(byte[] buffer, int offset, int value) {
+    buffer[offset] = (byte) (value >>> 24);
+    buffer[offset + 1] = (byte) (value >>> 16);
+    buffer[offset + 2] = (byte) (value >>> 8);
+    buffer[offset + 3] = (byte) value;
+  }
+
+  /**
+   * Returns the width of the image.
+   *
+   * @return The width in pixels.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Returns the height of the image.
+   *
+   * @return The height in pixels.
+   */
+  public int getHeight() {
+    return height;
+  }
+}
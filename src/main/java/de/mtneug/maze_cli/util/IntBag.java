@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Unordered collection of {@code int} values backed by a growing array. Removing a random item is done in constant time
+ * by moving the last item into the freed slot, which makes this a good fit for the wall lists of randomized maze
+ * generation algorithms.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class IntBag {
+  /**
+   * Default initial capacity.
+   */
+  public final static int DEFAULT_CAPACITY = 16;
+
+  /**
+   * The stored items. Only the first {@link #size} entries are valid.
+   */
+  private int[] items;
+
+  /**
+   * The number of stored items.
+   */
+  private int size = 0;
+
+  /**
+   * The constructor.
+   */
+  public IntBag() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param initialCapacity The initial capacity.
+   */
+  public IntBag(int initialCapacity) {
+    if (initialCapacity < 1)
+      throw new IllegalArgumentException("initialCapacity must be positive");
+
+    this.items = new int[initialCapacity];
+  }
+
+  /**
+   * Adds {@code item} to the bag.
+   *
+   * @param item The item to add.
+   */
+  public void add(int item) {
+    if (size == items.length)
+      items = Arrays.copyOf(items, items.length * 2);
+
+    items[size++] = item;
+  }
+
+  /**
+   * Returns the item at the given {@code index}.
+   *
+   * @param index The index of the item.
+   * @return The item.
+   * @throws IndexOutOfBoundsException if {@code index} is not valid.
+   */
+  public int get(int index) {
+    if (index < 0 || index >= size)
+      throw new IndexOutOfBoundsException();
+
+    return items[index];
+  }
+
+  /**
+   * Removes the item at the given {@code index}. The last item takes its place.
+   *
+   * @param index The index of the item.
+   * @return The removed item.
+   * @throws IndexOutOfBoundsException if {@code index} is not valid.
+   */
+  public int remove(int index) {
+    final int item = get(index);
+    items[index] = items[--size];
+    return item;
+  }
+
+  /**
+   * Removes a random item.
+   *
+   * @param random The random number generator to use.
+   * @return The removed item.
+   * @throws NoSuchElementException if the bag is empty.
+   */
+  public int removeRandom(RandomNumberGenerator random) {
+    if (size == 0)
+      throw new NoSuchElementException();
+
+    return remove(random.nextInt(size));
+  }
+
+  /**
+   * Returns the number of stored items.
+   *
+   * @return The number of stored items.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Whether there are any items stored.
+   *
+   * @return {@code true} if the bag is empty, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Removes all items. The capacity is kept.
+   */
+  public void clear() {
+    size = 0;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non negative {@code int} values with one bucket per value, e.g. for lengths of paths.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class IntHistogram {
+  /**
+   * The number of occurrences of every value.
+   */
+  private long[] counts = new long[16];
+
+  /**
+   * The number of added values.
+   */
+  private long count = 0;
+
+  /**
+   * The sum of all added values.
+   */
+  private long sum = 0;
+
+  /**
+   * The largest added value.
+   */
+  private int max = 0;
+
+  /**
+   * Adds an occurrence of {@code value}.
+   *
+   * @param value The value.
+   * @throws IllegalArgumentException if {@code value} is negative.
+   */
+  public void add(int value) {
+    if (value < 0)
+      throw new IllegalArgumentException("value can't be negative");
+
+    if (value >= counts.length)
+      counts = Arrays.copyOf(counts, Math.max(value + 1, counts.length * 2));
+
+    counts[value]++;
+    count++;
+    sum += value;
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Returns the number of occurrences of {@code value}.
+   *
+   * @param value The value.
+   * @return The number of occurrences.
+   */
+  public long getCount(int value) {
+    return value >= 0 && value < counts.length ? counts[value] : 0;
+  }
+
+  /**
+   * Returns the number of added values.
+   *
+   * @return The number of added values.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the mean of all added values.
+   *
+   * @return The mean or {@code 0} if no value was added.
+   */
+  public double getMean() {
+    if (count == 0)
+      return 0;
+
+    return (double) sum / count;
+  }
+
+  /**
+   * Returns the largest added value.
+   *
+   * @return The largest value or {@code 0} if no value was added.
+   */
+  public int getMax() {
+    return max;
+  }
+
+  /**
+   * Returns the distribution of values as {@code value:count} pairs separated by {@code ;}. Values without occurrences
+   * are left out.
+   *
+   * @return The distribution.
+   */
+  public String getDistribution() {
+    final StringBuilder builder = new StringBuilder();
+
+    for (int value = 0; value <= max && value < counts.length; value++) {
+      if (counts[value] == 0)
+        continue;
+
+      if (builder.length() > 0)
+        builder.append(';');
+
+      builder.append(value).append(':').append(counts[value]);
+    }
+
+    return builder.toString();
+  }
+}
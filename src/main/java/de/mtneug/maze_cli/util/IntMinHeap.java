@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min heap of {@code int} items between {@code 0} (inclusive) and a fixed bound (exclusive), e.g. cell IDs,
+ * ordered by an {@code int} priority. The position of every item in the heap is tracked, so the priority of a contained
+ * item can be decreased in logarithmic time.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class IntMinHeap {
+  /**
+   * Position of items, which are not in the heap.
+   */
+  private final static int NOT_CONTAINED = -1;
+
+  /**
+   * The items in heap order. Only the first {@link #size} entries are valid.
+   */
+  private final int[] heap;
+
+  /**
+   * The position of every item in {@link #heap}.
+   */
+  private final int[] positions;
+
+  /**
+   * The priority of every item.
+   */
+  private final int[] priorities;
+
+  /**
+   * The number of items in the heap.
+   */
+  private int size = 0;
+
+  /**
+   * The constructor.
+   *
+   * @param itemBound The upper bound (exclusive) of items.
+   */
+  public IntMinHeap(int itemBound) {
+    if (itemBound < 1)
+      throw new IllegalArgumentException("itemBound must be positive");
+
+    this.heap = new int[itemBound];
+    this.positions = new int[itemBound];
+    this.priorities = new int[itemBound];
+
+    Arrays.fill(positions, NOT_CONTAINED);
+  }
+
+  /**
+   * Adds {@code item} with the given {@code priority}.
+   *
+   * @param item     The item to add.
+   * @param priority The priority of the item.
+   * @throws IllegalArgumentException if the item is already contained.
+   */
+  public void add(int item, int priority) {
+    if (contains(item))
+      throw new IllegalArgumentException("item is already contained");
+
+    heap[size] = item;
+    positions[item] = size;
+    priorities[item] = priority;
+    siftUp(size++);
+  }
+
+  /**
+   * Lowers the priority of a contained item.
+   *
+   * @param item     The item.
+   * @param priority The new priority of the item.
+   * @throws IllegalArgumentException if the item is not contained or the priority would increase.
+   */
+  public void decreasePriority(int item, int priority) {
+    if (!contains(item))
+      throw new IllegalArgumentException("item is not contained");
+
+    if (priority > priorities[item])
+      throw new IllegalArgumentException("priority can only be decreased");
+
+    priorities[item] = priority;
+    siftUp(positions[item]);
+  }
+
+  /**
+   * Removes the item with the lowest priority.
+   *
+   * @return The removed item.
+   * @throws NoSuchElementException if the heap is empty.
+   */
+  public int poll() {
+    if (size == 0)
+      throw new NoSuchElementException();
+
+    final int item = heap[0];
+    positions[item] = NOT_CONTAINED;
+
+    if (--size > 0) {
+      heap[0] = heap[size];
+      positions[heap[0]] = 0;
+      siftDown(0);
+    }
+
+    return item;
+  }
+
+  /**
+   * Whether the given item is in the heap.
+   *
+   * @param item The item.
+   * @return {@code true} if the item is contained, {@code false} otherwise.
+   */
+  public boolean contains(int item) {
+    return positions[item] != NOT_CONTAINED;
+  }
+
+  /**
+   * Returns the priority of the given item. This is the last priority it had, if it is not contained anymore.
+   *
+   * @param item The item.
+   * @return The priority.
+   */
+  public int getPriority(int item) {
+    return priorities[item];
+  }
+
+  /**
+   * Returns the number of items in the heap.
+   *
+   * @return The number of items.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Whether there are any items in the heap.
+   *
+   * @return {@code true} if the heap is empty, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Moves the item at the given position up, until the heap order is restored.
+   *
+   * @param position The position of the item.
+   */
+  private void siftUp(int position) {
+    final int item = heap[position];
+    final int priority = priorities[item];
+
+    while (position > 0) {
+      final int parentPosition = (position - 1) >>> 1;
+      final int parent = heap[parentPosition];
+
+      if (priorities[parent] <= priority)
+        break;
+
+      heap[position] = parent;
+      positions[parent] = position;
+      position = parentPosition;
+    }
+
+    heap[position] = item;
+    positions[item] = position;
+  }
+
+  /**
+   * Moves the item at the given position down, until the heap order is restored.
+   *
+   * @param position The position of the item.
+   */
+  private void siftDown(int position) {
+    final int item = heap[position];
+    final int priority = priorities[item];
+
+    while (true) {
+      int childPosition = 2 * position + 1;
+
+      if (childPosition >= size)
+        break;
+
+      if (childPosition + 1 < size && priorities[heap[childPosition + 1]] < priorities[heap[childPosition]])
+        childPosition++;
+
+      final int child = heap[childPosition];
+
+      if (priority <= priorities[child])
+        break;
+
+      heap[position] = child;
+      positions[child] = position;
+      position = childPosition;
+    }
+
+    heap[position] = item;
+    positions[item] = position;
+  }
+}
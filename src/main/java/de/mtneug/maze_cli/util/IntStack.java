@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Stack of {@code int} values backed by a growing array. In contrast to {@link IntBag} the insertion order is kept, so
+ * it can also be used to record sequences of cell IDs, which are cut back to an earlier size.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class IntStack {
+  /**
+   * Default initial capacity.
+   */
+  public final static int DEFAULT_CAPACITY = 16;
+
+  /**
+   * The stored items. Only the first {@link #size} entries are valid.
+   */
+  private int[] items;
+
+  /**
+   * The number of stored items.
+   */
+  private int size = 0;
+
+  /**
+   * The constructor.
+   */
+  public IntStack() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param initialCapacity The initial capacity.
+   */
+  public IntStack(int initialCapacity) {
+    if (initialCapacity < 1)
+      throw new IllegalArgumentException("initialCapacity must be positive");
+
+    this.items = new int[initialCapacity];
+  }
+
+  /**
+   * Pushes {@code item} on top of the stack.
+   *
+   * @param item The item to push.
+   */
+  public void push(int item) {
+    if (size == items.length)
+      items = Arrays.copyOf(items, items.length * 2);
+
+    items[size++] = item;
+  }
+
+  /**
+   * Removes the top item.
+   *
+   * @return The removed item.
+   * @throws NoSuchElementException if the stack is empty.
+   */
+  public int pop() {
+    if (size == 0)
+      throw new NoSuchElementException();
+
+    return items[--size];
+  }
+
+  /**
+   * Returns the top item without removing it.
+   *
+   * @return The top item.
+   * @throws NoSuchElementException if the stack is empty.
+   */
+  public int peek() {
+    if (size == 0)
+      throw new NoSuchElementException();
+
+    return items[size - 1];
+  }
+
+  /**
+   * Returns the item at the given {@code index}, where {@code 0} is the bottom of the stack.
+   *
+   * @param index The index of the item.
+   * @return The item.
+   * @throws IndexOutOfBoundsException if {@code index} is not valid.
+   */
+  public int get(int index) {
+    if (index < 0 || index >= size)
+      throw new IndexOutOfBoundsException();
+
+    return items[index];
+  }
+
+  /**
+   * Removes all items above the given {@code size}.
+   *
+   * @param size The new size of the stack.
+   * @throws IndexOutOfBoundsException if {@code size} is negative or larger than the current size.
+   */
+  public void truncate(int size) {
+    if (size < 0 || size > this.size)
+      throw new IndexOutOfBoundsException();
+
+    this.size = size;
+  }
+
+  /**
+   * Returns the number of stored items.
+   *
+   * @return The number of stored items.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Whether there are any items stored.
+   *
+   * @return {@code true} if the stack is empty, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Removes all items. The capacity is kept.
+   */
+  public void clear() {
+    size = 0;
+  }
+}
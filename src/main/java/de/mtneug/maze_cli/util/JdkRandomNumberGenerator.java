@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+import java.util.Random;
+
+/**
+ * Adapter of a {@link Random} object, e.g. a {@link java.security.SecureRandom}. All numbers are drawn from the adapted
+ * object, so the same sequence is produced as before the abstraction was introduced.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class JdkRandomNumberGenerator extends RandomNumberGenerator {
+  /**
+   * The adapted random number generator.
+   */
+  private final Random random;
+
+  /**
+   * The constructor.
+   *
+   * @param random The random number generator to adapt.
+   */
+  public JdkRandomNumberGenerator(Random random) {
+    if (random == null)
+      throw new IllegalArgumentException("random can't be null");
+
+    this.random = random;
+  }
+
+  /**
+   * Returns the next pseudorandom, uniformly distributed {@code long} value.
+   *
+   * @return The next value.
+   */
+  @Override
+  public long nextLong() {
+    return random.nextLong();
+  }
+
+  /**
+   * Returns a pseudorandom, uniformly distributed {@code int} value between 0 (inclusive) and {@code bound}
+   * (exclusive).
+   *
+   * @param bound The upper bound. Must be positive.
+   * @return The next value.
+   */
+  @Override
+  public int nextInt(int bound) {
+    return random.nextInt(bound);
+  }
+
+  /**
+   * Returns the adapted random number generator.
+   *
+   * @return The adapted random number generator.
+   */
+  public Random getRandom() {
+    return random;
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non negative {@code long} values, e.g. latencies in nanoseconds, in the style of an HDR histogram.
+ * Values below {@link #LINEAR_LIMIT} get a bucket each. Larger values are put into buckets, which split every power of
+ * two into {@link #SUB_BUCKETS} equally sized parts, so any value is reported with a relative error below 1/32. The
+ * buckets are atomic counters, so any number of threads can record values without locking.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class LatencyHistogram {
+  /**
+   * Number of bits used for the sub buckets of a power of two.
+   */
+  private final static int SUB_BUCKET_BITS = 5;
+
+  /**
+   * Number of sub buckets of a power of two.
+   */
+  public final static int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * Values below this limit get a bucket each.
+   */
+  public final static int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+  /**
+   * Exponent of {@link #LINEAR_LIMIT}.
+   */
+  private final static int LINEAR_LIMIT_BITS = SUB_BUCKET_BITS + 1;
+
+  /**
+   * Number of buckets. The largest {@code long} value has the exponent 62.
+   */
+  private final static int BUCKET_COUNT = LINEAR_LIMIT + (63 - LINEAR_LIMIT_BITS) * SUB_BUCKETS;
+
+  /**
+   * The number of recorded values in every bucket.
+   */
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+  /**
+   * Records a value.
+   *
+   * @param value The value.
+   * @throws IllegalArgumentException if {@code value} is negative.
+   */
+  public void record(long value) {
+    if (value < 0)
+      throw new IllegalArgumentException("value can't be negative");
+
+    counts.incrementAndGet(getBucket(value));
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return The number of recorded values.
+   */
+  public long getCount() {
+    long count = 0;
+
+    for (int i = 0; i < BUCKET_COUNT; i++)
+      count += counts.get(i);
+
+    return count;
+  }
+
+  /**
+   * Returns the value at the given percentile, i.e. the largest value of the bucket, which contains the value at
+   * {@code percentile}. Values recorded concurrently may or may not be taken into account.
+   *
+   * @param percentile The percentile between 0 and 100.
+   * @return The value or {@code 0} if no value has been recorded.
+   * @throws IllegalArgumentException if {@code percentile} is not between 0 and 100.
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100)
+      throw new IllegalArgumentException("percentile must be between 0 and 100");
+
+    final long[] snapshot = new long[BUCKET_COUNT];
+    long count = 0;
+
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      snapshot[i] = counts.get(i);
+      count += snapshot[i];
+    }
+
+    if (count == 0)
+      return 0;
+
+    final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += snapshot[i];
+
+      if (seen >= rank)
+        return getHighestValue(i);
+    }
+
+    return getHighestValue(BUCKET_COUNT - 1);
+  }
+
+  /**
+   * Returns the bucket of {@code value}.
+   *
+   * @param value The non negative value.
+   * @return The index of the bucket.
+   */
+  private static int getBucket(long value) {
+    if (value < LINEAR_LIMIT)
+      return (int) value;
+
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    final int shift = exponent - SUB_BUCKET_BITS;
+    final int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+
+    return LINEAR_LIMIT + (exponent - LINEAR_LIMIT_BITS) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * Returns the largest value of the given bucket.
+   *
+   * @param bucket The index of the bucket.
+   * @return The largest value.
+   */
+  private static long getHighestValue(int bucket) {
+    if (bucket < LINEAR_LIMIT)
+      return bucket;
+
+    final int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_LIMIT_BITS;
+    final int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+    final int shift = exponent - SUB_BUCKET_BITS;
+    final long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+
+    return lowest + (1L << shift) - 1;
+  }
+}
@@ -5,7 +5,6 @@
 package de.mtneug.maze_cli.util;
 
 import java.util.List;
-import java.util.Random;
 
 /**
  * Helper methods for list operations.
@@ -28,7 +27,7 @@ public final class Lists {
    * @return A random item of {@code list}
    * @throws IllegalArgumentException
    */
-  public static <T> T chooseRandomItem(List<T> list, Random random) {
+  public static <T> T chooseRandomItem(List<T> list, RandomNumberGenerator random) {
     if (list == null || list.isEmpty())
       throw new IllegalArgumentException("list must include at least one item");
 
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+/**
+ * Common random number generator. In contrast to {@link java.util.Random} implementations are not thread-safe and
+ * keep their state in plain fields, so drawing a number does not need any atomic operation. Every algorithm therefore
+ * needs its own instance.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public abstract class RandomNumberGenerator {
+  /**
+   * Returns the next pseudorandom, uniformly distributed {@code long} value.
+   *
+   * @return The next value.
+   */
+  public abstract long nextLong();
+
+  /**
+   * Returns a pseudorandom, uniformly distributed {@code int} value between 0 (inclusive) and {@code bound}
+   * (exclusive). The value is computed by multiplying 32 random bits with {@code bound} and rejecting the few products,
+   * which would bias the result, as described by Lemire in "Fast Random Integer Generation in an Interval".
+   *
+   * @param bound The upper bound. Must be positive.
+   * @return The next value.
+   * @throws IllegalArgumentException if {@code bound} is not positive.
+   */
+  public int nextInt(int bound) {
+    if (bound <= 0)
+      throw new IllegalArgumentException("bound must be positive");
+
+    long product = (nextLong() >>> 32) * bound;
+    long low = product & 0xffffffffL;
+
+    if (low < bound) {
+      // 2^32 mod bound
+      final long threshold = (1L << 32) % bound;
+
+      while (low < threshold) {
+        product = (nextLong() >>> 32) * bound;
+        low = product & 0xffffffffL;
+      }
+    }
+
+    return (int) (product >>> 32);
+  }
+}
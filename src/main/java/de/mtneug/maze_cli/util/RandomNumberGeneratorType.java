@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The available random number generators.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public enum RandomNumberGeneratorType {
+  /**
+   * xoshiro256**, see {@link Xoshiro256StarStar}.
+   */
+  XOSHIRO("xoshiro") {
+    @Override
+    public RandomNumberGenerator create(long seed) {
+      return new Xoshiro256StarStar(seed);
+    }
+  },
+
+  /**
+   * SplitMix64, see {@link SplitMix64}.
+   */
+  SPLITMIX("splitmix") {
+    @Override
+    public RandomNumberGenerator create(long seed) {
+      return new SplitMix64(seed);
+    }
+  },
+
+  /**
+   * {@link Random}, see {@link JdkRandomNumberGenerator}.
+   */
+  JDK("jdk") {
+    @Override
+    public RandomNumberGenerator create(long seed) {
+      return new JdkRandomNumberGenerator(new Random(seed));
+    }
+  };
+
+  /**
+   * The type used if none is given.
+   */
+  public final static RandomNumberGeneratorType DEFAULT = XOSHIRO;
+
+  /**
+   * The name of the type as used on the CLI.
+   */
+  private final String name;
+
+  /**
+   * The constructor.
+   *
+   * @param name The name of the type.
+   */
+  RandomNumberGeneratorType(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Returns the type with the given name.
+   *
+   * @param name The name of the type.
+   * @return The type or {@code null} if there is none with that name.
+   */
+  public static RandomNumberGeneratorType getType(String name) {
+    for (RandomNumberGeneratorType type : values())
+      if (type.name.equals(name))
+        return type;
+
+    return null;
+  }
+
+  /**
+   * Creates a new random number generator of this type.
+   *
+   * @param seed The seed.
+   * @return The random number generator.
+   */
+  public abstract RandomNumberGenerator create(long seed);
+
+  /**
+   * Creates a new random number generator of this type with a seed drawn from the {@link ThreadLocalRandom} of the
+   * calling thread, so concurrently created generators do not contend on a shared seed.
+   *
+   * @return The random number generator.
+   */
+  public RandomNumberGenerator create() {
+    return create(ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * Returns the name of the type as used on the CLI.
+   *
+   * @return The name.
+   */
+  public String getName() {
+    return name;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+/**
+ * The SplitMix64 random number generator. It produces the same values as {@link java.util.SplittableRandom} with the
+ * same seed. Since its state is a simple counter, the n-th value can be computed directly, see
+ * {@link #getValue(long, long)}.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class SplitMix64 extends RandomNumberGenerator {
+  /**
+   * The increment of the state between two values.
+   */
+  private final static long GAMMA = 0x9e3779b97f4a7c15L;
+
+  /**
+   * The state.
+   */
+  private long state;
+
+  /**
+   * The constructor.
+   *
+   * @param seed The seed.
+   */
+  public SplitMix64(long seed) {
+    this.state = seed;
+  }
+
+  /**
+   * Returns the value with index {@code index} of a generator seeded with {@code seed} without generating the values
+   * before.
+   *
+   * @param seed  The seed.
+   * @param index The index of the value.
+   * @return The value.
+   */
+  public static long getValue(long seed, long index) {
+    return mix(seed + (index + 1) * GAMMA);
+  }
+
+  /**
+   * Scrambles the bits of {@code z}.
+   *
+   * @param z The value to scramble.
+   * @return The scrambled value.
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Returns the next pseudorandom, uniformly distributed {@code long} value.
+   *
+   * @return The next value.
+   */
+  @Override
+  public long nextLong() {
+    state += GAMMA;
+    return mix(state);
+  }
+}
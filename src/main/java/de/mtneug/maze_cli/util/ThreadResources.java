@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Helper methods to measure the resources used by the current thread through the {@link ThreadMXBean}. Measurements
+ * not supported by the JVM are reported as {@link #UNSUPPORTED}.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public final class ThreadResources {
+  /**
+   * Value returned for measurements not supported by the JVM.
+   */
+  public final static long UNSUPPORTED = -1;
+
+  /**
+   * The thread MX bean.
+   */
+  private final static ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  /**
+   * The thread MX bean with allocation measurement or {@code null} if it is not supported.
+   */
+  private final static com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN = findAllocationMXBean();
+
+  /**
+   * Private constructor.
+   */
+  private ThreadResources() {
+  }
+
+  /**
+   * Returns the thread MX bean if it supports allocation measurement.
+   *
+   * @return The thread MX bean or {@code null} if allocation measurement is not supported.
+   */
+  private static com.sun.management.ThreadMXBean findAllocationMXBean() {
+    try {
+      if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+        final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+
+        if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled())
+          return bean;
+      }
+    } catch (LinkageError e) {
+      // not a HotSpot compatible JVM
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the CPU time used by the current thread.
+   *
+   * @return The CPU time in nanoseconds or {@link #UNSUPPORTED}.
+   */
+  public static long getCpuTime() {
+    if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported())
+      return UNSUPPORTED;
+
+    return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+  }
+
+  /**
+   * Returns the number of bytes allocated by the current thread.
+   *
+   * @return The number of allocated bytes or {@link #UNSUPPORTED}.
+   */
+  public static long getAllocatedBytes() {
+    if (ALLOCATION_MX_BEAN == null)
+      return UNSUPPORTED;
+
+    return ALLOCATION_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Returns the difference of two measurements.
+   *
+   * @param start The measurement at the start.
+   * @param end   The measurement at the end.
+   * @return The difference or {@link #UNSUPPORTED} if one of the measurements is not supported.
+   */
+  public static long difference(long start, long end) {
+    if (start == UNSUPPORTED || end == UNSUPPORTED)
+      return UNSUPPORTED;
+
+    return end - start;
+  }
+}
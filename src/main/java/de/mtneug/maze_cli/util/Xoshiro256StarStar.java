@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.util;
+
+/**
+ * The xoshiro256** random number generator by Blackman and Vigna. It has 256 bits of state and passes all common
+ * statistical tests. The state is initialized from the seed with {@link SplitMix64}, as recommended by the authors.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+public class Xoshiro256StarStar extends RandomNumberGenerator {
+  /**
+   * First part of the state.
+   */
+  private long s0;
+
+  /**
+   * Second part of the state.
+   */
+  private long s1;
+
+  /**
+   * Third part of the state.
+   */
+  private long s2;
+
+  /**
+   * Fourth part of the state.
+   */
+  private long s3;
+
+  /**
+   * The constructor.
+   *
+   * @param seed The seed.
+   */
+  public Xoshiro256StarStar(long seed) {
+    final SplitMix64 seeder = new SplitMix64(seed);
+
+    // the state is never all zero, since SplitMix64 does not return four zeros in a row
+    this.s0 = seeder.nextLong();
+    this.s1 = seeder.nextLong();
+    this.s2 = seeder.nextLong();
+    this.s3 = seeder.nextLong();
+  }
+
+  /**
+   * Returns the next pseudorandom, uniformly distributed {@code long} value.
+   *
+   * @return The next value.
+   */
+  @Override
+  public long nextLong() {
+    final long result = Long.rotateLeft(s1 * 5, 7) * 9;
+    final long t = s1 << 17;
+
+    s2 ^= s0;
+    s3 ^= s1;
+    s1 ^= s2;
+    s0 ^= s3;
+    s2 ^= t;
+    s3 = Long.rotateLeft(s3, 45);
+
+    return result;
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2015. Matthias Neugebauer. All rights reserved.
+ */
+
+package de.mtneug.maze_cli.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor writing an index of all classes annotated for automatic wire up. For every annotation a resource
+ * named like the annotation is written into {@link #INDEX_PATH}, which contains the binary names of the annotated
+ * classes, one per line. The index is read at runtime instead of scanning the classpath.
+ * <p/>
+ * Incremental builds may only compile some of the classes. Therefore an existing index is read first and its entries
+ * are kept, as long as the classes still exist and are still annotated.
+ *
+ * @author Matthias Neugebauer
+ * @version 1.0
+ * @since 1.1
+ */
+@SupportedAnnotationTypes({
+    "de.mtneug.maze_cli.annotations.AlgorithmAdapter",
+    "de.mtneug.maze_cli.annotations.CliCommand",
+    "de.mtneug.maze_cli.annotations.OutputAdapter",
+    "de.mtneug.maze_cli.annotations.Solver"
+})
+public class AnnotationIndexProcessor extends AbstractProcessor {
+  /**
+   * Path of the index resources. Must match the path used by {@code AnnotationHelper}.
+   */
+  public final static String INDEX_PATH = "META-INF/maze-cli/index/";
+
+  /**
+   * Map of annotation names to the names of the classes found so far.
+   */
+  private final Map<String, Set<String>> index = new LinkedHashMap<>();
+
+  /**
+   * Initializes the processor and reads the existing index.
+   *
+   * @param processingEnv The environment of the processor.
+   */
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+
+    for (String annotationName : getSupportedAnnotationTypes())
+      index.put(annotationName, readIndex(annotationName));
+  }
+
+  /**
+   * Returns the latest supported source version.
+   *
+   * @return The latest supported source version.
+   */
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  /**
+   * Collects the annotated classes of this round and writes the index after the last round.
+   *
+   * @param annotations The annotations found in this round.
+   * @param roundEnv    The environment of this round.
+   * @return {@code true}, since the annotations are only used by this processor.
+   */
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      final String annotationName = annotation.getQualifiedName().toString();
+
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() != ElementKind.CLASS)
+          continue;
+
+        index.get(annotationName).add(
+            processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString()
+        );
+      }
+    }
+
+    if (roundEnv.processingOver())
+      writeIndex();
+
+    return true;
+  }
+
+  /**
+   * Reads the index resource of an annotation written by an earlier compilation.
+   *
+   * @param annotationName The qualified name of the annotation.
+   * @return The names of the classes in the index. Empty if there is no index.
+   */
+  private Set<String> readIndex(String annotationName) {
+    final Set<String> classNames = new TreeSet<>();
+
+    try {
+      final FileObject resource = processingEnv.getFiler()
+          .getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_PATH + annotationName);
+
+      try (BufferedReader reader = new BufferedReader(resource.openReader(true))) {
+        String className;
+
+        while ((className = reader.readLine()) != null) {
+          className = className.trim();
+
+          if (!className.isEmpty())
+            classNames.add(className);
+        }
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // no index written yet
+    }
+
+    return classNames;
+  }
+
+  /**
+   * Checks whether the class is still annotated with the annotation. Entries of deleted classes or classes, whose
+   * annotation was removed, are stale.
+   *
+   * @param className      The binary name of the class.
+   * @param annotationName The qualified name of the annotation.
+   * @return {@code true} if the class exists and is annotated, {@code false} otherwise.
+   */
+  private boolean isAnnotated(String className, String annotationName) {
+    final TypeElement element = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+
+    if (element == null)
+      return false;
+
+    for (AnnotationMirror annotationMirror : element.getAnnotationMirrors())
+      if (((TypeElement) annotationMirror.getAnnotationType().asElement()).getQualifiedName()
+          .contentEquals(annotationName))
+        return true;
+
+    return false;
+  }
+
+  /**
+   * Writes one index resource per supported annotation, leaving out stale entries.
+   */
+  private void writeIndex() {
+    for (Map.Entry<String, Set<String>> entry : index.entrySet()) {
+      final Iterator<String> classNames = entry.getValue().iterator();
+
+      while (classNames.hasNext())
+        if (!isAnnotated(classNames.next(), entry.getKey()))
+          classNames.remove();
+
+      try {
+        final FileObject resource = processingEnv.getFiler()
+            .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_PATH + entry.getKey());
+
+        try (Writer writer = resource.openWriter()) {
+          for (String className : entry.getValue())
+            writer.write(className + "\n");
+        }
+      } catch (IOException e) {
+        processingEnv.getMessager().printMessage(
+            Diagnostic.Kind.ERROR, "Could not write index of " + entry.getKey() + ": " + e.getMessage()
+        );
+      }
+    }
+  }
+}